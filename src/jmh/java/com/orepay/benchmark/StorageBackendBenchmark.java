@@ -0,0 +1,131 @@
+package com.orepay.benchmark;
+
+import com.orepay.OrePay;
+import com.orepay.data.MappedDataManager;
+import com.orepay.data.MemoryStorageBackend;
+import com.orepay.data.SqlStorageBackend;
+import com.orepay.data.StatisticDelta;
+import com.orepay.data.StorageBackend;
+import com.orepay.data.StorageExecutor;
+import com.orepay.data.StoredPlayer;
+import com.orepay.data.YamlDataManager;
+import org.bukkit.plugin.PluginDescriptionFile;
+import org.bukkit.plugin.java.JavaPluginLoader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the batch operations of each storage backend
+ * Run with: mvn -P benchmarks verify
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StorageBackendBenchmark {
+    
+    private static final int PLAYERS = 100;
+    private static final String[] ORES = {"COAL_ORE", "IRON_ORE", "GOLD_ORE", "DIAMOND_ORE"};
+    
+    @Param({"memory", "yaml", "mapped", "sqlite"})
+    public String storageType;
+    
+    private OrePay plugin;
+    private StorageBackend backend;
+    private List<UUID> players;
+    private List<StatisticDelta> deltas;
+    
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        File dataFolder = Files.createTempDirectory("orepay-storage-benchmark").toFile();
+        StubServer stubServer = new StubServer();
+        
+        PluginDescriptionFile description = new PluginDescriptionFile("OrePay", "benchmark", OrePay.class.getName());
+        plugin = new OrePay(new JavaPluginLoader(stubServer.getServer()), description, dataFolder, new File(dataFolder, "OrePay.jar")) {
+        };
+        stubServer.setOwner(plugin);
+        plugin.onEnable();
+        
+        backend = openBackend(plugin.getDataManager().getStorageExecutor());
+        
+        // One write-behind flush: every player mined every ore in the current hour
+        players = new ArrayList<>(PLAYERS);
+        deltas = new ArrayList<>(PLAYERS * ORES.length);
+        long hourStart = System.currentTimeMillis() / 1000L / 3600L * 3600L;
+        for (int i = 0; i < PLAYERS; i++) {
+            UUID uuid = UUID.randomUUID();
+            players.add(uuid);
+            for (String ore : ORES) {
+                deltas.add(new StatisticDelta(uuid, ore, hourStart, 3, 7.5));
+            }
+        }
+        backend.applyDeltas(deltas).join();
+    }
+    
+    /**
+     * Open a separate backend of the benchmarked type next to the plugin's own
+     * @param storageExecutor The executor that runs storage I/O
+     * @return The backend
+     * @throws IOException If the backend's files can't be opened
+     */
+    private StorageBackend openBackend(StorageExecutor storageExecutor) throws IOException {
+        switch (storageType) {
+            case "yaml":
+                return new YamlDataManager(plugin, storageExecutor);
+            case "mapped":
+                return new MappedDataManager(plugin, storageExecutor);
+            case "sqlite":
+                SqlStorageBackend sqlBackend = SqlStorageBackend.create(plugin, storageExecutor, "sqlite");
+                if (!sqlBackend.open()) {
+                    throw new IOException("Could not open the SQLite database");
+                }
+                return sqlBackend;
+            case "memory":
+            default:
+                return new MemoryStorageBackend();
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        backend.close();
+        plugin.onDisable();
+    }
+    
+    @Benchmark
+    public void applyDeltas() {
+        backend.applyDeltas(deltas).join();
+    }
+    
+    @Benchmark
+    public Map<UUID, StoredPlayer> loadPlayers() {
+        return backend.loadPlayers(players).join();
+    }
+    
+    @Benchmark
+    public Map<UUID, Double> loadTopEarned() {
+        return backend.loadTopEarned(10).join();
+    }
+}
\ No newline at end of file
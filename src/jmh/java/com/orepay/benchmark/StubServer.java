@@ -0,0 +1,251 @@
+package com.orepay.benchmark;
+
+import net.milkbowl.vault.economy.Economy;
+import net.milkbowl.vault.economy.EconomyResponse;
+import net.md_5.bungee.api.ChatMessageType;
+import net.md_5.bungee.api.chat.BaseComponent;
+import org.bukkit.Chunk;
+import org.bukkit.Material;
+import org.bukkit.Server;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.command.PluginCommand;
+import org.bukkit.entity.Player;
+import org.bukkit.permissions.PermissionAttachmentInfo;
+import org.bukkit.persistence.PersistentDataContainer;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.PluginManager;
+import org.bukkit.plugin.RegisteredServiceProvider;
+import org.bukkit.plugin.ServicePriority;
+import org.bukkit.plugin.ServicesManager;
+import org.bukkit.scheduler.BukkitScheduler;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * Minimal in-process stand-ins for the Bukkit server, players and Vault economy
+ * Only the calls made on the reward path return meaningful values; everything
+ * else returns null, zero or false
+ */
+public final class StubServer {
+    
+    private final AtomicInteger currentTick = new AtomicInteger();
+    private final UUID blockWorldUUID = UUID.randomUUID();
+    private final Economy economy = proxy(Economy.class, (proxy, method, args) -> {
+        switch (method.getName()) {
+            case "depositPlayer":
+                return new EconomyResponse((Double) args[args.length - 1], 0.0, EconomyResponse.ResponseType.SUCCESS, null);
+            case "currencyNamePlural":
+                return "dollars";
+            case "currencyNameSingular":
+                return "dollar";
+            case "isEnabled":
+                return true;
+            default:
+                return defaultValue(method.getReturnType());
+        }
+    });
+    private final Server server;
+    private Plugin owner;
+    
+    public StubServer() {
+        Plugin vault = proxy(Plugin.class, (proxy, method, args) -> "getName".equals(method.getName())
+                ? "Vault" : defaultValue(method.getReturnType()));
+        
+        PluginManager pluginManager = proxy(PluginManager.class, (proxy, method, args) ->
+                "getPlugin".equals(method.getName()) && "Vault".equals(args[0]) ? vault : defaultValue(method.getReturnType()));
+        
+        ServicesManager servicesManager = proxy(ServicesManager.class, (proxy, method, args) ->
+                "getRegistration".equals(method.getName()) && args[0] == Economy.class
+                        ? new RegisteredServiceProvider<>(Economy.class, economy, ServicePriority.Normal, vault)
+                        : defaultValue(method.getReturnType()));
+        
+        BukkitScheduler scheduler = proxy(BukkitScheduler.class, (proxy, method, args) -> defaultValue(method.getReturnType()));
+        
+        this.server = proxy(Server.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getPluginManager":
+                    return pluginManager;
+                case "getServicesManager":
+                    return servicesManager;
+                case "getScheduler":
+                    return scheduler;
+                case "getCurrentTick":
+                    return currentTick.get();
+                case "getLogger":
+                    return Logger.getLogger("StubServer");
+                case "getOnlinePlayers":
+                    return Collections.emptyList();
+                case "getPluginCommand":
+                    return createCommand((String) args[0]);
+                case "isPrimaryThread":
+                    return true;
+                default:
+                    return defaultValue(method.getReturnType());
+            }
+        });
+    }
+    
+    /**
+     * Set the plugin that owns commands looked up on this server
+     * @param owner The plugin
+     */
+    public void setOwner(Plugin owner) {
+        this.owner = owner;
+    }
+    
+    public Server getServer() {
+        return server;
+    }
+    
+    public Economy getEconomy() {
+        return economy;
+    }
+    
+    /**
+     * Advance the server tick counter
+     * @param ticks The number of ticks to advance
+     */
+    public void advanceTicks(int ticks) {
+        currentTick.addAndGet(ticks);
+    }
+    
+    /**
+     * Create a player stub
+     * @param name The player name
+     * @param worldName The name of the world the player is in
+     * @param extraPermissions Number of unrelated permission nodes the player has, to mimic permission plugin groups
+     * @param multiplierPermission A multiplier permission node such as "orepay.multiplier.2", or null
+     * @return The player
+     */
+    public Player createPlayer(String name, String worldName, int extraPermissions, String multiplierPermission) {
+        UUID uuid = UUID.nameUUIDFromBytes(("OfflinePlayer:" + name).getBytes());
+        World world = proxy(World.class, (proxy, method, args) -> "getName".equals(method.getName())
+                ? worldName : defaultValue(method.getReturnType()));
+        Player.Spigot spigot = new Player.Spigot() {
+            @Override
+            public void sendMessage(ChatMessageType position, BaseComponent... components) {
+                // Discard
+            }
+        };
+        
+        Set<PermissionAttachmentInfo> permissions = new HashSet<>();
+        Player[] self = new Player[1];
+        self[0] = proxy(Player.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getUniqueId":
+                    return uuid;
+                case "getName":
+                    return name;
+                case "getWorld":
+                    return world;
+                case "hasPermission":
+                case "isOnline":
+                    return true;
+                case "getEffectivePermissions":
+                    return permissions;
+                case "spigot":
+                    return spigot;
+                case "getPlayer":
+                    return self[0];
+                case "hashCode":
+                    return uuid.hashCode();
+                case "equals":
+                    return proxy == args[0];
+                default:
+                    return defaultValue(method.getReturnType());
+            }
+        });
+        
+        for (int i = 0; i < extraPermissions; i++) {
+            permissions.add(new PermissionAttachmentInfo(self[0], "group.node." + i, null, true));
+        }
+        if (multiplierPermission != null) {
+            permissions.add(new PermissionAttachmentInfo(self[0], multiplierPermission, null, true));
+        }
+        
+        return self[0];
+    }
+    
+    /**
+     * Create a block stub, in a world and chunk without any stored data
+     * @param material The block type
+     * @return The block
+     */
+    public Block createBlock(Material material) {
+        World world = proxy(World.class, (proxy, method, args) -> "getUID".equals(method.getName())
+                ? blockWorldUUID : defaultValue(method.getReturnType()));
+        PersistentDataContainer container = proxy(PersistentDataContainer.class, (proxy, method, args) -> defaultValue(method.getReturnType()));
+        Chunk chunk = proxy(Chunk.class, (proxy, method, args) -> "getPersistentDataContainer".equals(method.getName())
+                ? container : defaultValue(method.getReturnType()));
+        
+        return proxy(Block.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getType":
+                    return material;
+                case "getWorld":
+                    return world;
+                case "getChunk":
+                    return chunk;
+                default:
+                    return defaultValue(method.getReturnType());
+            }
+        });
+    }
+    
+    /**
+     * Create a command owned by the current owner plugin
+     * @param name The command name
+     * @return The command
+     */
+    private PluginCommand createCommand(String name) {
+        try {
+            Constructor<PluginCommand> constructor = PluginCommand.class.getDeclaredConstructor(String.class, Plugin.class);
+            constructor.setAccessible(true);
+            return constructor.newInstance(name, owner);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Could not create command stub", e);
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(StubServer.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+    
+    private static Object defaultValue(Class<?> type) {
+        if (!type.isPrimitive() || type == void.class) {
+            return null;
+        }
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == double.class) {
+            return 0.0;
+        }
+        if (type == float.class) {
+            return 0.0f;
+        }
+        if (type == char.class) {
+            return '\0';
+        }
+        if (type == byte.class) {
+            return (byte) 0;
+        }
+        if (type == short.class) {
+            return (short) 0;
+        }
+        return 0;
+    }
+}
\ No newline at end of file
@@ -4,13 +4,26 @@ import com.orepay.api.OrePayAPI;
 import com.orepay.commands.CommandManager;
 import com.orepay.config.ConfigManager;
 import com.orepay.data.DatabaseManager;
+import com.orepay.economy.BatchRewardProcessor;
+import com.orepay.economy.PayoutCoalescer;
 import com.orepay.integration.PlaceholderManager;
+import com.orepay.leaderboard.LeaderboardManager;
 import com.orepay.listeners.MiningListener;
+import com.orepay.listeners.PlacedOreTracker;
+import com.orepay.listeners.PlayerSessionListener;
 import com.orepay.multiplier.MultiplierManager;
 import com.orepay.ui.UIManager;
 import net.milkbowl.vault.economy.Economy;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.PluginDescriptionFile;
 import org.bukkit.plugin.RegisteredServiceProvider;
 import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.plugin.java.JavaPluginLoader;
+
+import java.io.File;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
 
 /**
  * Main plugin class for OrePay
@@ -18,12 +31,30 @@ import org.bukkit.plugin.java.JavaPlugin;
 public class OrePay extends JavaPlugin {
 
     private Economy economy;
+    private PayoutCoalescer payoutCoalescer;
+    private BatchRewardProcessor batchRewardProcessor;
     private ConfigManager configManager;
     private DatabaseManager dataManager;
     private MultiplierManager multiplierManager;
+    private LeaderboardManager leaderboardManager;
     private UIManager uiManager;
     private CommandManager commandManager;
     
+    public OrePay() {
+        super();
+    }
+    
+    /**
+     * Create the plugin outside a running server, used by the benchmarks
+     * @param loader The plugin loader
+     * @param description The plugin description
+     * @param dataFolder The data folder
+     * @param file The plugin file
+     */
+    protected OrePay(JavaPluginLoader loader, PluginDescriptionFile description, File dataFolder, File file) {
+        super(loader, description, dataFolder, file);
+    }
+    
     @Override
     public void onEnable() {
         // Setup configuration
@@ -37,8 +68,11 @@ public class OrePay extends JavaPlugin {
         }
         
         // Setup managers
+        this.payoutCoalescer = new PayoutCoalescer(this);
+        this.batchRewardProcessor = new BatchRewardProcessor(this);
         this.dataManager = new DatabaseManager(this);
         this.multiplierManager = new MultiplierManager(this);
+        this.leaderboardManager = new LeaderboardManager(this);
         this.uiManager = new UIManager(this);
         this.commandManager = new CommandManager(this);
         
@@ -47,7 +81,17 @@ public class OrePay extends JavaPlugin {
         getCommand("orepay").setTabCompleter(commandManager);
         
         // Register event listeners
-        getServer().getPluginManager().registerEvents(new MiningListener(this), this);
+        PlacedOreTracker placedOreTracker = new PlacedOreTracker(this);
+        getServer().getPluginManager().registerEvents(new MiningListener(this, placedOreTracker), this);
+        getServer().getPluginManager().registerEvents(placedOreTracker, this);
+        getServer().getPluginManager().registerEvents(new PlayerSessionListener(this), this);
+        getServer().getPluginManager().registerEvents(leaderboardManager, this);
+        
+        // Load settings and statistics for players already online (e.g. after a reload), in one read
+        List<UUID> onlinePlayers = getServer().getOnlinePlayers().stream().map(Player::getUniqueId).collect(Collectors.toList());
+        if (!onlinePlayers.isEmpty()) {
+            dataManager.getStorageExecutor().execute(() -> dataManager.loadPlayers(onlinePlayers));
+        }
         
         // Setup API
         OrePayAPI.initialize(this);
@@ -66,9 +110,14 @@ public class OrePay extends JavaPlugin {
     
     @Override
     public void onDisable() {
-        // Close database connection
+        // Deposit payouts still waiting for their window to close
+        if (payoutCoalescer != null) {
+            payoutCoalescer.flushAll();
+        }
+        
+        // Flush pending statistics and close database connection
         if (dataManager != null) {
-            dataManager.closeConnection();
+            dataManager.shutdown();
         }
         
         getLogger().info("OrePay has been disabled!");
@@ -115,6 +164,22 @@ public class OrePay extends JavaPlugin {
         return economy;
     }
     
+    /**
+     * Get the payout coalescer
+     * @return The payout coalescer
+     */
+    public PayoutCoalescer getPayoutCoalescer() {
+        return payoutCoalescer;
+    }
+    
+    /**
+     * Get the batch reward processor
+     * @return The batch reward processor
+     */
+    public BatchRewardProcessor getBatchRewardProcessor() {
+        return batchRewardProcessor;
+    }
+    
     /**
      * Get the config manager
      * @return The config manager
@@ -139,6 +204,14 @@ public class OrePay extends JavaPlugin {
         return multiplierManager;
     }
     
+    /**
+     * Get the leaderboard manager
+     * @return The leaderboard manager
+     */
+    public LeaderboardManager getLeaderboardManager() {
+        return leaderboardManager;
+    }
+    
     /**
      * Get the UI manager
      * @return The UI manager
@@ -3,12 +3,21 @@ package com.orepay.api;
 import com.orepay.OrePay;
 import com.orepay.api.events.OreMinedEvent;
 import com.orepay.api.events.PlayerRewardedEvent;
+import com.orepay.data.BucketResolution;
 import com.orepay.data.DatabaseManager;
+import com.orepay.data.HistoryBucket;
+import com.orepay.data.PlayerTotals;
+import com.orepay.leaderboard.Leaderboard;
+import com.orepay.leaderboard.LeaderboardEntry;
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 
 /**
@@ -47,6 +56,25 @@ public class OrePayAPI {
         return plugin.getMultiplierManager().getMultiplier(player);
     }
     
+    /**
+     * Clear the cached multiplier for a player
+     * Permission plugins and other hooks should call this when a player's
+     * multiplier permissions change
+     * @param playerUUID The player UUID
+     */
+    public static void invalidateMultiplier(UUID playerUUID) {
+        ensureInitialized();
+        plugin.getMultiplierManager().invalidate(playerUUID);
+    }
+    
+    /**
+     * Clear the cached multipliers for all players
+     */
+    public static void invalidateAllMultipliers() {
+        ensureInitialized();
+        plugin.getMultiplierManager().invalidateAll();
+    }
+    
     /**
      * Check if rewards are enabled for a player
      * @param player The player to check
@@ -77,6 +105,29 @@ public class OrePayAPI {
         return plugin.getDataManager().getPlayerStatistics(player);
     }
     
+    /**
+     * Get all statistics for a batch of players, online or offline, with a single storage read
+     * Statistics of offline players may lag a few seconds behind, as recent increments are written in batches
+     * @param playerUUIDs The player UUIDs
+     * @return CompletableFuture with a map of player UUID to their map of ore names to StatisticEntry objects
+     */
+    public static CompletableFuture<Map<UUID, Map<String, DatabaseManager.StatisticEntry>>> getPlayerStatistics(Collection<UUID> playerUUIDs) {
+        ensureInitialized();
+        return plugin.getDataManager().getPlayerStatistics(playerUUIDs);
+    }
+    
+    /**
+     * Get the total earned, total mined and most mined ore for a batch of players, online or offline,
+     * with a single storage read
+     * Totals of offline players may lag a few seconds behind, as recent increments are written in batches
+     * @param playerUUIDs The player UUIDs
+     * @return CompletableFuture with a map of player UUID to totals
+     */
+    public static CompletableFuture<Map<UUID, PlayerTotals>> getTotals(Collection<UUID> playerUUIDs) {
+        ensureInitialized();
+        return plugin.getDataManager().getTotals(playerUUIDs);
+    }
+    
     /**
      * Get the total amount earned by a player
      * @param player The player
@@ -107,6 +158,54 @@ public class OrePayAPI {
         return plugin.getDataManager().getMostMinedOre(player);
     }
     
+    /**
+     * Get a player's recent mining history, e.g. earnings per hour today
+     * Requires database storage, increments not yet written to the database are not included
+     * @param playerUUID The player UUID
+     * @param resolution The bucket length
+     * @param count The number of buckets, ending with the current one
+     * @return CompletableFuture with the buckets, oldest first, or an empty list if history isn't recorded
+     */
+    public static CompletableFuture<List<HistoryBucket>> getHistory(UUID playerUUID, BucketResolution resolution, int count) {
+        ensureInitialized();
+        return plugin.getDataManager().getHistory(playerUUID, resolution, count);
+    }
+    
+    /**
+     * Get the players who earned the most from mining
+     * Served from memory, safe to call often
+     * @param limit The maximum number of entries (at most the configured leaderboard size)
+     * @return The entries, highest first
+     */
+    public static List<LeaderboardEntry> getTopEarned(int limit) {
+        ensureInitialized();
+        return plugin.getLeaderboardManager().getEarned().getTop(limit);
+    }
+    
+    /**
+     * Get the players who mined the most ores
+     * Served from memory, safe to call often
+     * @param limit The maximum number of entries (at most the configured leaderboard size)
+     * @return The entries, highest first
+     */
+    public static List<LeaderboardEntry> getTopMined(int limit) {
+        ensureInitialized();
+        return plugin.getLeaderboardManager().getMined().getTop(limit);
+    }
+    
+    /**
+     * Get the players who mined a specific ore the most times
+     * Served from memory, safe to call often
+     * @param material The ore material
+     * @param limit The maximum number of entries (at most the configured leaderboard size)
+     * @return The entries, highest first, or an empty list if the ore isn't rewarded
+     */
+    public static List<LeaderboardEntry> getTopMined(Material material, int limit) {
+        ensureInitialized();
+        Leaderboard leaderboard = plugin.getLeaderboardManager().getOre(material);
+        return leaderboard != null ? leaderboard.getTop(limit) : Collections.emptyList();
+    }
+    
     /**
      * Manually reward a player for mining an ore
      * This will trigger the PlayerRewardedEvent
@@ -131,7 +230,7 @@ public class OrePayAPI {
         double finalAmount = minedEvent.getReward() * multiplier;
         
         // Give reward
-        plugin.getEconomy().depositPlayer(player, finalAmount);
+        plugin.getPayoutCoalescer().deposit(player, finalAmount);
         
         // Record statistic
         plugin.getDataManager().recordMiningStatistic(player, material, finalAmount);
@@ -143,6 +242,19 @@ public class OrePayAPI {
         return finalAmount;
     }
     
+    /**
+     * Manually reward a player for many ores at once, e.g. blocks broken by an area tool
+     * The multiplier is resolved once and the total deposited once
+     * This will trigger one OreBatchMinedEvent and one PlayerBatchRewardedEvent instead of events per ore
+     * @param player The player to reward
+     * @param ores Map of ore material to the number mined, rewarded with the configured reward per ore
+     * @return The total amount rewarded (after multipliers)
+     */
+    public static double rewardPlayerBatch(Player player, Map<Material, Integer> ores) {
+        ensureInitialized();
+        return plugin.getBatchRewardProcessor().reward(player, ores, Collections.emptyList(), false);
+    }
+    
     /**
      * Check if the API is initialized
      * @throws IllegalStateException if not initialized
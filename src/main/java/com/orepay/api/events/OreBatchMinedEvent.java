@@ -0,0 +1,138 @@
+package com.orepay.api.events;
+
+import org.bukkit.Material;
+import org.bukkit.block.Block;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Cancellable;
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Event that fires once when a player mines many ores at once, e.g. with TNT or an area tool
+ * Can be cancelled to prevent all rewards, single ores or blocks can be removed from the batch instead
+ */
+public class OreBatchMinedEvent extends Event implements Cancellable {
+    
+    private static final HandlerList HANDLERS = new HandlerList();
+    private final Player player;
+    private final Map<Material, Integer> counts;
+    private final Map<Material, Double> rewards;
+    private final List<Block> blocks;
+    private boolean cancelled;
+    
+    public OreBatchMinedEvent(Player player, Map<Material, Integer> counts, Map<Material, Double> rewards, List<Block> blocks) {
+        this.player = player;
+        this.counts = counts;
+        this.rewards = rewards;
+        this.blocks = blocks;
+        this.cancelled = false;
+    }
+    
+    /**
+     * Get the player who mined the ores
+     * @return The player
+     */
+    public Player getPlayer() {
+        return player;
+    }
+    
+    /**
+     * Get the ores that will be rewarded
+     * @return Map of ore material to the number mined
+     */
+    public Map<Material, Integer> getOres() {
+        return Collections.unmodifiableMap(counts);
+    }
+    
+    /**
+     * Get the number of times an ore was mined
+     * @param material The ore material
+     * @return The number mined, or 0 if the ore isn't part of the batch
+     */
+    public int getCount(Material material) {
+        return counts.getOrDefault(material, 0);
+    }
+    
+    /**
+     * Set the number of times an ore will be rewarded
+     * @param material The ore material, must be part of the batch
+     * @param count The new number, 0 or less removes the ore from the batch
+     */
+    public void setCount(Material material, int count) {
+        if (!counts.containsKey(material)) {
+            return;
+        }
+        
+        if (count <= 0) {
+            counts.remove(material);
+        } else {
+            counts.put(material, count);
+        }
+    }
+    
+    /**
+     * Get the base reward amount for one ore (before multipliers)
+     * @param material The ore material
+     * @return The reward amount, or 0 if the ore isn't part of the batch
+     */
+    public double getReward(Material material) {
+        return counts.containsKey(material) ? rewards.getOrDefault(material, 0.0) : 0;
+    }
+    
+    /**
+     * Set the base reward amount for one ore (before multipliers)
+     * @param material The ore material, must be part of the batch
+     * @param reward The new reward amount
+     */
+    public void setReward(Material material, double reward) {
+        if (counts.containsKey(material)) {
+            rewards.put(material, reward);
+        }
+    }
+    
+    /**
+     * Get the broken blocks that make up the batch
+     * @return The blocks, empty if the ores were not broken in the world (e.g. rewarded through the API)
+     */
+    public List<Block> getBlocks() {
+        return Collections.unmodifiableList(blocks);
+    }
+    
+    /**
+     * Remove a single block from the batch so it isn't rewarded
+     * @param block The block
+     * @return True if the block was part of the batch
+     */
+    public boolean removeBlock(Block block) {
+        if (!blocks.remove(block)) {
+            return false;
+        }
+        
+        Material material = block.getType();
+        setCount(material, getCount(material) - 1);
+        return true;
+    }
+    
+    @Override
+    public boolean isCancelled() {
+        return cancelled;
+    }
+    
+    @Override
+    public void setCancelled(boolean cancelled) {
+        this.cancelled = cancelled;
+    }
+    
+    @Override
+    public HandlerList getHandlers() {
+        return HANDLERS;
+    }
+    
+    public static HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,57 @@
+package com.orepay.api.events;
+
+import org.bukkit.entity.Player;
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+
+/**
+ * Event that fires after coalesced payouts have been deposited to a player
+ * Only fires when payout coalescing is enabled, PlayerRewardedEvent still fires once per ore
+ * This event cannot be cancelled
+ */
+public class PayoutDepositedEvent extends Event {
+    
+    private static final HandlerList HANDLERS = new HandlerList();
+    private final Player player;
+    private final double amount;
+    private final int rewardCount;
+    
+    public PayoutDepositedEvent(Player player, double amount, int rewardCount) {
+        this.player = player;
+        this.amount = amount;
+        this.rewardCount = rewardCount;
+    }
+    
+    /**
+     * Get the player who was paid
+     * @return The player
+     */
+    public Player getPlayer() {
+        return player;
+    }
+    
+    /**
+     * Get the total amount deposited
+     * @return The deposited amount
+     */
+    public double getAmount() {
+        return amount;
+    }
+    
+    /**
+     * Get the number of ore rewards included in the deposit
+     * @return The number of rewards
+     */
+    public int getRewardCount() {
+        return rewardCount;
+    }
+    
+    @Override
+    public HandlerList getHandlers() {
+        return HANDLERS;
+    }
+    
+    public static HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,72 @@
+package com.orepay.api.events;
+
+import com.orepay.data.DatabaseManager;
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Event that fires after a player has been rewarded for a batch of ores
+ * Fires once per batch instead of a PlayerRewardedEvent per ore
+ * This event cannot be cancelled
+ */
+public class PlayerBatchRewardedEvent extends Event {
+    
+    private static final HandlerList HANDLERS = new HandlerList();
+    private final Player player;
+    private final Map<Material, DatabaseManager.StatisticEntry> ores;
+    private final double amount;
+    private final double multiplier;
+    
+    public PlayerBatchRewardedEvent(Player player, Map<Material, DatabaseManager.StatisticEntry> ores, double amount, double multiplier) {
+        this.player = player;
+        this.ores = ores;
+        this.amount = amount;
+        this.multiplier = multiplier;
+    }
+    
+    /**
+     * Get the player who was rewarded
+     * @return The player
+     */
+    public Player getPlayer() {
+        return player;
+    }
+    
+    /**
+     * Get the ores that were rewarded
+     * @return Map of ore material to the number mined and amount rewarded (after multipliers)
+     */
+    public Map<Material, DatabaseManager.StatisticEntry> getOres() {
+        return Collections.unmodifiableMap(ores);
+    }
+    
+    /**
+     * Get the total amount rewarded (after multipliers)
+     * @return The amount
+     */
+    public double getAmount() {
+        return amount;
+    }
+    
+    /**
+     * Get the multiplier that was applied
+     * @return The multiplier
+     */
+    public double getMultiplier() {
+        return multiplier;
+    }
+    
+    @Override
+    public HandlerList getHandlers() {
+        return HANDLERS;
+    }
+    
+    public static HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+}
\ No newline at end of file
@@ -7,6 +7,8 @@ import org.bukkit.event.HandlerList;
 
 /**
  * Event that fires after a player has been rewarded for mining an ore
+ * Fires once per ore, when payout coalescing is enabled the money is deposited
+ * later together with the player's other rewards (see PayoutDepositedEvent)
  * This event cannot be cancelled
  */
 public class PlayerRewardedEvent extends Event {
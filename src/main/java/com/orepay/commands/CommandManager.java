@@ -2,9 +2,12 @@ package com.orepay.commands;
 
 import com.orepay.OrePay;
 import com.orepay.commands.subcommands.HelpCommand;
+import com.orepay.commands.subcommands.HistoryCommand;
+import com.orepay.commands.subcommands.RebuildCommand;
 import com.orepay.commands.subcommands.ReloadCommand;
 import com.orepay.commands.subcommands.StatsCommand;
 import com.orepay.commands.subcommands.ToggleCommand;
+import com.orepay.commands.subcommands.TopCommand;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
@@ -36,6 +39,9 @@ public class CommandManager implements CommandExecutor, TabCompleter {
         registerCommand(new ReloadCommand(plugin));
         registerCommand(new StatsCommand(plugin));
         registerCommand(new ToggleCommand(plugin));
+        registerCommand(new TopCommand(plugin));
+        registerCommand(new HistoryCommand(plugin));
+        registerCommand(new RebuildCommand(plugin));
     }
     
     /**
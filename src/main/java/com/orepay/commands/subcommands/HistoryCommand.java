@@ -0,0 +1,180 @@
+package com.orepay.commands.subcommands;
+
+import com.orepay.OrePay;
+import com.orepay.commands.SubCommand;
+import com.orepay.data.BucketResolution;
+import com.orepay.data.HistoryBucket;
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Command to view a player's earnings over time
+ */
+public class HistoryCommand implements SubCommand {
+    
+    private static final DateTimeFormatter HOUR_FORMAT = DateTimeFormatter.ofPattern("HH:00");
+    private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.ofPattern("EEE d MMM");
+    private static final DateTimeFormatter MONTH_FORMAT = DateTimeFormatter.ofPattern("MMM yyyy");
+    
+    private final OrePay plugin;
+    
+    public HistoryCommand(OrePay plugin) {
+        this.plugin = plugin;
+    }
+    
+    @Override
+    public String getName() {
+        return "history";
+    }
+    
+    @Override
+    public String getDescription() {
+        return "View earnings per hour, day or month";
+    }
+    
+    @Override
+    public String getUsage() {
+        return "/orepay history [hour|day|month] [player]";
+    }
+    
+    @Override
+    public String getPermission() {
+        return "orepay.command.history";
+    }
+    
+    @Override
+    public void execute(CommandSender sender, String[] args) {
+        String prefix = plugin.getConfigManager().getPrefix();
+        
+        if (!plugin.getDataManager().isHistoryEnabled()) {
+            sender.sendMessage(prefix + plugin.getConfigManager().getMessage("messages.history-unavailable"));
+            return;
+        }
+        
+        BucketResolution resolution = args.length > 0 ? BucketResolution.fromName(args[0]) : BucketResolution.DAY;
+        if (resolution == null) {
+            sender.sendMessage(prefix + plugin.getConfigManager().getMessage("messages.history-unknown"));
+            return;
+        }
+        
+        if (args.length > 1 && !sender.hasPermission("orepay.command.history.others")) {
+            sender.sendMessage(prefix + plugin.getConfigManager().getMessage("messages.commands.no-permission"));
+            return;
+        }
+        
+        UUID uuid;
+        String playerName;
+        
+        if (args.length > 1) {
+            Player target = Bukkit.getPlayer(args[1]);
+            
+            if (target != null) {
+                uuid = target.getUniqueId();
+                playerName = target.getName();
+            } else {
+                // Offline players are looked up by UUID
+                try {
+                    uuid = UUID.fromString(args[1]);
+                    playerName = args[1];
+                } catch (IllegalArgumentException e) {
+                    sender.sendMessage(prefix + plugin.getConfigManager().getMessage("messages.commands.player-not-found"));
+                    return;
+                }
+            }
+        } else {
+            if (!(sender instanceof Player)) {
+                sender.sendMessage(prefix + plugin.getConfigManager().getMessage("messages.commands.player-only"));
+                return;
+            }
+            
+            uuid = ((Player) sender).getUniqueId();
+            playerName = sender.getName();
+        }
+        
+        plugin.getDataManager().getHistory(uuid, resolution, getBucketCount(resolution)).thenAccept(history ->
+                plugin.getServer().getScheduler().runTask(plugin, () -> displayHistory(sender, playerName, resolution, history)));
+    }
+    
+    /**
+     * Send the history lines
+     * @param sender The command sender
+     * @param playerName The name shown in the header
+     * @param resolution The bucket length
+     * @param history The buckets, oldest first
+     */
+    private void displayHistory(CommandSender sender, String playerName, BucketResolution resolution, List<HistoryBucket> history) {
+        String currency = plugin.getEconomy().currencyNamePlural();
+        ZoneId zone = ZoneId.systemDefault();
+        DateTimeFormatter format = resolution == BucketResolution.HOUR ? HOUR_FORMAT
+                : resolution == BucketResolution.DAY ? DAY_FORMAT : MONTH_FORMAT;
+        
+        sender.sendMessage(plugin.getConfigManager().getMessage("messages.history-header")
+                .replace("%player%", playerName)
+                .replace("%resolution%", resolution.name().toLowerCase()));
+        
+        for (HistoryBucket bucket : history) {
+            String ore = bucket.getTopEarningOre();
+            if (ore == null) {
+                ore = "-";
+            } else {
+                Material material = Material.getMaterial(ore);
+                if (material != null) {
+                    ore = plugin.getUiManager().getOreDisplayName(material);
+                }
+            }
+            
+            sender.sendMessage(plugin.getConfigManager().getMessage("messages.history-line")
+                    .replace("%period%", format.format(Instant.ofEpochSecond(bucket.getStart()).atZone(zone)))
+                    .replace("%earned%", String.format("%.2f", bucket.getTotalEarned()))
+                    .replace("%currency%", currency)
+                    .replace("%mined%", String.valueOf(bucket.getTotalMined()))
+                    .replace("%ore%", ore));
+        }
+    }
+    
+    /**
+     * Get how many buckets are shown for a resolution
+     * @param resolution The bucket length
+     * @return A day of hours, a week of days or a year of months
+     */
+    private int getBucketCount(BucketResolution resolution) {
+        switch (resolution) {
+            case HOUR:
+                return 24;
+            case DAY:
+                return 7;
+            default:
+                return 12;
+        }
+    }
+    
+    @Override
+    public List<String> getTabCompletions(CommandSender sender, String[] args) {
+        if (args.length == 1) {
+            return Stream.of(BucketResolution.values())
+                    .map(resolution -> resolution.name().toLowerCase())
+                    .filter(name -> name.startsWith(args[0].toLowerCase()))
+                    .collect(Collectors.toList());
+        }
+        
+        if (args.length == 2 && sender.hasPermission("orepay.command.history.others")) {
+            return Bukkit.getOnlinePlayers().stream()
+                    .map(Player::getName)
+                    .filter(name -> name.toLowerCase().startsWith(args[1].toLowerCase()))
+                    .collect(Collectors.toList());
+        }
+        
+        return new ArrayList<>();
+    }
+}
\ No newline at end of file
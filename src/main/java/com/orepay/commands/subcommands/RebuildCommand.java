@@ -0,0 +1,62 @@
+package com.orepay.commands.subcommands;
+
+import com.orepay.OrePay;
+import com.orepay.commands.SubCommand;
+import org.bukkit.command.CommandSender;
+
+/**
+ * Command to recompute the per-player totals table from the per-ore statistics
+ */
+public class RebuildCommand implements SubCommand {
+    
+    private final OrePay plugin;
+    
+    public RebuildCommand(OrePay plugin) {
+        this.plugin = plugin;
+    }
+    
+    @Override
+    public String getName() {
+        return "rebuildtotals";
+    }
+    
+    @Override
+    public String getDescription() {
+        return "Recomputes the player totals from the per-ore statistics";
+    }
+    
+    @Override
+    public String getUsage() {
+        return "/orepay rebuildtotals";
+    }
+    
+    @Override
+    public String getPermission() {
+        return "orepay.command.rebuild";
+    }
+    
+    @Override
+    public void execute(CommandSender sender, String[] args) {
+        String prefix = plugin.getConfigManager().getPrefix();
+        
+        if (!plugin.getDataManager().isUsingDatabase()) {
+            sender.sendMessage(prefix + plugin.getConfigManager().getMessage("messages.rebuild-unavailable"));
+            return;
+        }
+        
+        sender.sendMessage(prefix + plugin.getConfigManager().getMessage("messages.rebuild-started"));
+        long startTime = System.currentTimeMillis();
+        
+        plugin.getDataManager().rebuildPlayerTotals().thenAccept(players ->
+                plugin.getServer().getScheduler().runTask(plugin, () -> {
+                    if (players < 0) {
+                        sender.sendMessage(prefix + plugin.getConfigManager().getMessage("messages.rebuild-failed"));
+                        return;
+                    }
+                    
+                    sender.sendMessage(prefix + plugin.getConfigManager().getMessage("messages.rebuild-success")
+                            .replace("%players%", String.valueOf(players))
+                            .replace("%time%", String.valueOf(System.currentTimeMillis() - startTime)));
+                }));
+    }
+}
\ No newline at end of file
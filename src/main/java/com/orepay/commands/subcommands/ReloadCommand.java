@@ -39,9 +39,18 @@ public class ReloadCommand implements SubCommand {
     public void execute(CommandSender sender, String[] args) {
         long startTime = System.currentTimeMillis();
         
+        // Save pending data off the main thread, reloading doesn't change the storage backend
+        plugin.getDataManager().getStorageExecutor().execute(plugin.getDataManager()::flush);
+        
         // Reload config
         plugin.getConfigManager().reloadConfig();
         
+        // Multipliers depend on the config, so resolve them again
+        plugin.getMultiplierManager().invalidateAll();
+        
+        // Compile the notification messages again
+        plugin.getUiManager().reload();
+        
         long timeTaken = System.currentTimeMillis() - startTime;
         String message = plugin.getConfigManager().getMessage("commands.reload-success")
                 .replace("%time%", String.valueOf(timeTaken));
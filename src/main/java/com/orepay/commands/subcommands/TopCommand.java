@@ -0,0 +1,104 @@
+package com.orepay.commands.subcommands;
+
+import com.orepay.OrePay;
+import com.orepay.commands.SubCommand;
+import com.orepay.leaderboard.Leaderboard;
+import com.orepay.leaderboard.LeaderboardEntry;
+import com.orepay.leaderboard.LeaderboardManager;
+import org.bukkit.Material;
+import org.bukkit.command.CommandSender;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Command to view the mining leaderboards
+ */
+public class TopCommand implements SubCommand {
+    
+    private final OrePay plugin;
+    
+    public TopCommand(OrePay plugin) {
+        this.plugin = plugin;
+    }
+    
+    @Override
+    public String getName() {
+        return "top";
+    }
+    
+    @Override
+    public String getDescription() {
+        return "View the top miners by amount earned, ores mined or a single ore";
+    }
+    
+    @Override
+    public String getUsage() {
+        return "/orepay top [earned|mined|ore]";
+    }
+    
+    @Override
+    public String getPermission() {
+        return "orepay.command.top";
+    }
+    
+    @Override
+    public List<String> getAliases() {
+        return List.of("leaderboard");
+    }
+    
+    @Override
+    public void execute(CommandSender sender, String[] args) {
+        String prefix = plugin.getConfigManager().getPrefix();
+        String key = args.length > 0 ? args[0] : LeaderboardManager.EARNED;
+        
+        Leaderboard leaderboard = plugin.getLeaderboardManager().getLeaderboard(key);
+        if (leaderboard == null) {
+            sender.sendMessage(prefix + plugin.getConfigManager().getMessage("messages.top-unknown"));
+            return;
+        }
+        
+        List<LeaderboardEntry> entries = leaderboard.getTop(leaderboard.getCapacity());
+        if (entries.isEmpty()) {
+            sender.sendMessage(prefix + plugin.getConfigManager().getMessage("messages.top-empty"));
+            return;
+        }
+        
+        boolean earned = leaderboard == plugin.getLeaderboardManager().getEarned();
+        String currency = plugin.getEconomy().currencyNamePlural();
+        
+        sender.sendMessage(plugin.getConfigManager().getMessage("messages.top-header")
+                .replace("%board%", key.toLowerCase().replace('_', ' ')));
+        
+        for (int i = 0; i < entries.size(); i++) {
+            LeaderboardEntry entry = entries.get(i);
+            String value = earned
+                    ? String.format("%.2f", entry.getValue()) + " " + currency
+                    : String.valueOf((long) entry.getValue());
+            
+            sender.sendMessage(plugin.getConfigManager().getMessage("messages.top-line")
+                    .replace("%rank%", String.valueOf(i + 1))
+                    .replace("%player%", entry.getName())
+                    .replace("%value%", value));
+        }
+    }
+    
+    @Override
+    public List<String> getTabCompletions(CommandSender sender, String[] args) {
+        if (args.length == 1) {
+            List<String> options = new ArrayList<>();
+            options.add(LeaderboardManager.EARNED);
+            options.add(LeaderboardManager.MINED);
+            for (Material material : plugin.getConfigManager().getRewardTable().asMap().keySet()) {
+                options.add(material.name().toLowerCase());
+            }
+            
+            return options.stream()
+                    .filter(option -> option.startsWith(args[0].toLowerCase()))
+                    .collect(Collectors.toList());
+        }
+        
+        return new ArrayList<>();
+    }
+}
\ No newline at end of file
@@ -6,8 +6,7 @@ import org.bukkit.Material;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.FileConfiguration;
 
-import java.util.Collections;
-import java.util.HashMap;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -19,7 +18,8 @@ public class ConfigManager {
     
     private final OrePay plugin;
     private FileConfiguration config;
-    private final Map<Material, Double> oreRewards = new HashMap<>();
+    private volatile RewardTable rewardTable = RewardTable.EMPTY;
+    private volatile PluginSettings settings;
     
     public ConfigManager(OrePay plugin) {
         this.plugin = plugin;
@@ -39,17 +39,23 @@ public class ConfigManager {
         
         // Load ore rewards
         loadOreRewards();
+        
+        // Compile typed settings
+        settings = PluginSettings.compile(config);
     }
     
     /**
      * Load ore rewards from the configuration
+     * The compiled table replaces the previous one in a single write, so readers on
+     * other threads always see either the old or the new rewards
      */
     private void loadOreRewards() {
-        oreRewards.clear();
+        Map<Material, Double> oreRewards = new EnumMap<>(Material.class);
         
         ConfigurationSection oresSection = config.getConfigurationSection("rewards");
         if (oresSection == null) {
             plugin.getLogger().warning("No ore rewards found in config.yml");
+            rewardTable = RewardTable.EMPTY;
             return;
         }
         
@@ -66,6 +72,7 @@ public class ConfigManager {
             }
         }
         
+        rewardTable = RewardTable.compile(oreRewards);
         plugin.getLogger().info("Loaded " + oreRewards.size() + " ore rewards");
     }
     
@@ -74,7 +81,23 @@ public class ConfigManager {
      * @return Map of material to reward amount
      */
     public Map<Material, Double> getOreRewards() {
-        return Collections.unmodifiableMap(oreRewards);
+        return rewardTable.asMap();
+    }
+    
+    /**
+     * Get the compiled reward table
+     * @return The current reward table
+     */
+    public RewardTable getRewardTable() {
+        return rewardTable;
+    }
+    
+    /**
+     * Get the compiled settings snapshot
+     * @return The current settings
+     */
+    public PluginSettings getSettings() {
+        return settings;
     }
     
     /**
@@ -83,7 +106,7 @@ public class ConfigManager {
      * @return The reward amount (0 if not found)
      */
     public double getRewardForOre(Material material) {
-        return oreRewards.getOrDefault(material, 0.0);
+        return rewardTable.getReward(material);
     }
     
     /**
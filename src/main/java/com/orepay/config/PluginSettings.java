@@ -0,0 +1,229 @@
+package com.orepay.config;
+
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable, typed snapshot of the settings read on the reward path
+ * Compiled from config.yml on every load so hot code reads plain fields
+ */
+public final class PluginSettings {
+    
+    /**
+     * How multipliers are combined
+     */
+    public enum StackMode {
+        ADD,
+        MULTIPLY;
+        
+        /**
+         * Parse a stack mode from its config name
+         * @param name The config name
+         * @return The stack mode, or ADD if the name is unknown
+         */
+        public static StackMode fromConfig(String name) {
+            return "multiply".equalsIgnoreCase(name) ? MULTIPLY : ADD;
+        }
+    }
+    
+    /**
+     * How reward notifications are shown
+     */
+    public enum NotificationType {
+        CHAT,
+        ACTIONBAR,
+        TITLE,
+        SUBTITLE,
+        NONE;
+        
+        /**
+         * Parse a notification type from its config name
+         * @param name The config name
+         * @return The notification type, or CHAT if the name is unknown
+         */
+        public static NotificationType fromConfig(String name) {
+            try {
+                return valueOf(name.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                return CHAT;
+            }
+        }
+    }
+    
+    private final boolean veinDetectionEnabled;
+    private final long veinTimeoutTicks;
+    private final boolean veinMultiplierEnabled;
+    private final double veinMultiplier;
+    private final double minimumPayout;
+    private final boolean explosionRewardsEnabled;
+    private final boolean placedOreTrackingEnabled;
+    private final boolean statisticsEnabled;
+    private final boolean payoutCoalescingEnabled;
+    private final long payoutCoalescingWindowTicks;
+    private final boolean multipliersEnabled;
+    private final double baseMultiplier;
+    private final StackMode stackMode;
+    private final boolean permissionMultipliersEnabled;
+    private final boolean temporaryMultipliersEnabled;
+    private final boolean worldMultipliersEnabled;
+    private final Map<String, Double> worldMultipliers;
+    private final NotificationType notificationType;
+    private final boolean notificationAggregationEnabled;
+    private final long notificationAggregationTicks;
+    private final int titleFadeIn;
+    private final int titleStay;
+    private final int titleFadeOut;
+    
+    private PluginSettings(ConfigurationSection config) {
+        this.veinDetectionEnabled = config.getBoolean("vein-mining.detection-enabled", true);
+        this.veinTimeoutTicks = config.getLong("vein-mining.timeout-ticks", 15L);
+        this.veinMultiplierEnabled = config.getBoolean("vein-mining.enable-multiplier", true);
+        this.veinMultiplier = config.getDouble("vein-mining.multiplier", 0.5);
+        this.minimumPayout = config.getDouble("minimum-payout", 0.01);
+        this.explosionRewardsEnabled = config.getBoolean("explosions.enabled", false);
+        this.placedOreTrackingEnabled = config.getBoolean("placed-ores.tracking-enabled", true);
+        this.statisticsEnabled = config.getBoolean("statistics.enabled", true);
+        this.payoutCoalescingEnabled = config.getBoolean("economy.coalesce.enabled", false);
+        this.payoutCoalescingWindowTicks = Math.max(1L, config.getLong("economy.coalesce.window-ticks", 20L));
+        this.multipliersEnabled = config.getBoolean("multipliers.enabled", true);
+        this.baseMultiplier = config.getDouble("multipliers.base", 1.0);
+        this.stackMode = StackMode.fromConfig(config.getString("multipliers.stack-type", "add"));
+        this.permissionMultipliersEnabled = config.getBoolean("multipliers.permission.enabled", true);
+        this.temporaryMultipliersEnabled = config.getBoolean("multipliers.temporary.enabled", true);
+        this.worldMultipliersEnabled = config.getBoolean("multipliers.world.enabled", true);
+        this.worldMultipliers = loadWorldMultipliers(config.getConfigurationSection("multipliers.world.worlds"));
+        this.notificationType = NotificationType.fromConfig(config.getString("notifications.type", "chat"));
+        this.notificationAggregationEnabled = config.getBoolean("notifications.aggregate.enabled", false);
+        this.notificationAggregationTicks = Math.max(1L, config.getLong("notifications.aggregate.interval-ticks", 20L));
+        this.titleFadeIn = config.getInt("notifications.title-fade-in", 5);
+        this.titleStay = config.getInt("notifications.title-stay", 20);
+        this.titleFadeOut = config.getInt("notifications.title-fade-out", 5);
+    }
+    
+    /**
+     * Compile settings from a configuration
+     * @param config The plugin configuration
+     * @return The compiled settings
+     */
+    public static PluginSettings compile(ConfigurationSection config) {
+        return new PluginSettings(config);
+    }
+    
+    /**
+     * Load the world multipliers section
+     * @param section The multipliers.world.worlds section, may be null
+     * @return Unmodifiable map of world name to multiplier
+     */
+    private static Map<String, Double> loadWorldMultipliers(ConfigurationSection section) {
+        if (section == null) {
+            return Collections.emptyMap();
+        }
+        
+        Map<String, Double> multipliers = new HashMap<>();
+        for (String worldName : section.getKeys(false)) {
+            multipliers.put(worldName, section.getDouble(worldName, 1.0));
+        }
+        
+        return Collections.unmodifiableMap(multipliers);
+    }
+    
+    public boolean isVeinDetectionEnabled() {
+        return veinDetectionEnabled;
+    }
+    
+    public long getVeinTimeoutTicks() {
+        return veinTimeoutTicks;
+    }
+    
+    public boolean isVeinMultiplierEnabled() {
+        return veinMultiplierEnabled;
+    }
+    
+    public double getVeinMultiplier() {
+        return veinMultiplier;
+    }
+    
+    public double getMinimumPayout() {
+        return minimumPayout;
+    }
+    
+    public boolean isExplosionRewardsEnabled() {
+        return explosionRewardsEnabled;
+    }
+    
+    public boolean isPlacedOreTrackingEnabled() {
+        return placedOreTrackingEnabled;
+    }
+    
+    public boolean isStatisticsEnabled() {
+        return statisticsEnabled;
+    }
+    
+    public boolean isPayoutCoalescingEnabled() {
+        return payoutCoalescingEnabled;
+    }
+    
+    public long getPayoutCoalescingWindowTicks() {
+        return payoutCoalescingWindowTicks;
+    }
+    
+    public boolean isMultipliersEnabled() {
+        return multipliersEnabled;
+    }
+    
+    public double getBaseMultiplier() {
+        return baseMultiplier;
+    }
+    
+    public StackMode getStackMode() {
+        return stackMode;
+    }
+    
+    public boolean isPermissionMultipliersEnabled() {
+        return permissionMultipliersEnabled;
+    }
+    
+    public boolean isTemporaryMultipliersEnabled() {
+        return temporaryMultipliersEnabled;
+    }
+    
+    public boolean isWorldMultipliersEnabled() {
+        return worldMultipliersEnabled;
+    }
+    
+    /**
+     * Get the multiplier for a world
+     * @param worldName The world name
+     * @return The world multiplier, or 1.0 if the world has none
+     */
+    public double getWorldMultiplier(String worldName) {
+        return worldMultipliers.getOrDefault(worldName, 1.0);
+    }
+    
+    public NotificationType getNotificationType() {
+        return notificationType;
+    }
+    
+    public boolean isNotificationAggregationEnabled() {
+        return notificationAggregationEnabled;
+    }
+    
+    public long getNotificationAggregationTicks() {
+        return notificationAggregationTicks;
+    }
+    
+    public int getTitleFadeIn() {
+        return titleFadeIn;
+    }
+    
+    public int getTitleStay() {
+        return titleStay;
+    }
+    
+    public int getTitleFadeOut() {
+        return titleFadeOut;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,90 @@
+package com.orepay.config;
+
+import org.bukkit.Material;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Immutable table of ore rewards indexed by material ordinal
+ * A new table is compiled on every config load and published as a whole
+ */
+public final class RewardTable {
+    
+    /**
+     * Table with no rewarded materials
+     */
+    public static final RewardTable EMPTY = compile(Collections.emptyMap());
+    
+    private final double[] rewards;
+    private final long[] rewardedBits;
+    private final Map<Material, Double> rewardMap;
+    
+    private RewardTable(double[] rewards, long[] rewardedBits, Map<Material, Double> rewardMap) {
+        this.rewards = rewards;
+        this.rewardedBits = rewardedBits;
+        this.rewardMap = rewardMap;
+    }
+    
+    /**
+     * Compile a reward table
+     * @param oreRewards Map of material to reward amount, only positive rewards are kept
+     * @return The compiled table
+     */
+    public static RewardTable compile(Map<Material, Double> oreRewards) {
+        int materials = Material.values().length;
+        double[] rewards = new double[materials];
+        long[] rewardedBits = new long[(materials + 63) >>> 6];
+        Map<Material, Double> rewardMap = new EnumMap<>(Material.class);
+        
+        for (Map.Entry<Material, Double> entry : oreRewards.entrySet()) {
+            double reward = entry.getValue();
+            if (reward <= 0) {
+                continue;
+            }
+            
+            int ordinal = entry.getKey().ordinal();
+            rewards[ordinal] = reward;
+            rewardedBits[ordinal >>> 6] |= 1L << ordinal;
+            rewardMap.put(entry.getKey(), reward);
+        }
+        
+        return new RewardTable(rewards, rewardedBits, Collections.unmodifiableMap(rewardMap));
+    }
+    
+    /**
+     * Check if a material has a reward
+     * @param material The material
+     * @return True if mining the material pays a reward
+     */
+    public boolean isRewarded(Material material) {
+        int ordinal = material.ordinal();
+        return (rewardedBits[ordinal >>> 6] & (1L << ordinal)) != 0;
+    }
+    
+    /**
+     * Get the reward for a material
+     * @param material The material
+     * @return The reward amount (0 if not rewarded)
+     */
+    public double getReward(Material material) {
+        return rewards[material.ordinal()];
+    }
+    
+    /**
+     * Get the number of rewarded materials
+     * @return The number of rewarded materials
+     */
+    public int size() {
+        return rewardMap.size();
+    }
+    
+    /**
+     * Get the rewards as a map
+     * @return Unmodifiable map of material to reward amount
+     */
+    public Map<Material, Double> asMap() {
+        return rewardMap;
+    }
+}
\ No newline at end of file
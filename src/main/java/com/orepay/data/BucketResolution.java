@@ -0,0 +1,82 @@
+package com.orepay.data;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Length of a statistics history bucket
+ * Buckets are stored hourly and rolled into days and months as they age
+ */
+public enum BucketResolution {
+    HOUR(0),
+    DAY(1),
+    MONTH(2);
+    
+    private final int id;
+    
+    BucketResolution(int id) {
+        this.id = id;
+    }
+    
+    /**
+     * Get the value stored in the resolution column
+     * @return The id
+     */
+    public int getId() {
+        return id;
+    }
+    
+    /**
+     * Parse a resolution from its name
+     * @param name The name, e.g. "day"
+     * @return The resolution, or null if the name is unknown
+     */
+    public static BucketResolution fromName(String name) {
+        try {
+            return valueOf(name.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+    
+    /**
+     * Get the start of the bucket containing a time
+     * @param epochSecond The time
+     * @param zone The zone buckets are aligned to
+     * @return The bucket start in epoch seconds
+     */
+    public long truncate(long epochSecond, ZoneId zone) {
+        ZonedDateTime time = Instant.ofEpochSecond(epochSecond).atZone(zone);
+        
+        switch (this) {
+            case HOUR:
+                return time.truncatedTo(ChronoUnit.HOURS).toEpochSecond();
+            case DAY:
+                return time.truncatedTo(ChronoUnit.DAYS).toEpochSecond();
+            default:
+                return time.withDayOfMonth(1).truncatedTo(ChronoUnit.DAYS).toEpochSecond();
+        }
+    }
+    
+    /**
+     * Move a bucket start by a number of buckets
+     * @param bucketStart The bucket start in epoch seconds
+     * @param buckets The number of buckets, may be negative
+     * @param zone The zone buckets are aligned to
+     * @return The moved bucket start in epoch seconds
+     */
+    public long plus(long bucketStart, long buckets, ZoneId zone) {
+        ZonedDateTime time = Instant.ofEpochSecond(bucketStart).atZone(zone);
+        
+        switch (this) {
+            case HOUR:
+                return time.plusHours(buckets).toEpochSecond();
+            case DAY:
+                return time.plusDays(buckets).toEpochSecond();
+            default:
+                return time.plusMonths(buckets).toEpochSecond();
+        }
+    }
+}
\ No newline at end of file
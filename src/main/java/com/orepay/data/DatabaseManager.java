@@ -4,112 +4,205 @@ import com.orepay.OrePay;
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
 
-import java.sql.Connection;
-import java.sql.DriverManager;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
-import java.sql.SQLException;
-import java.sql.Statement;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Manages database interactions for the plugin
+ * Manages player data for the plugin
+ * Online players are served from memory, statistics reach the storage backend through
+ * a write-behind buffer, and offline players are served from a refreshing cache
  */
 public class DatabaseManager {
-
+    
+    private static final int IMPORT_BATCH_SIZE = 1000;
+    
     private final OrePay plugin;
-    private final YamlDataManager yamlDataManager;
-    private Connection connection;
-    private boolean useDatabase;
-
+    private final StorageExecutor storageExecutor;
+    private final StorageBackend backend;
+    private final StatisticsWriteBuffer statisticsBuffer;
+    private final Map<UUID, Boolean> rewardsEnabledCache = new ConcurrentHashMap<>();
+    private final Set<UUID> settingsLoading = ConcurrentHashMap.newKeySet();
+    private final Map<UUID, PlayerStatistics> onlineStatistics = new ConcurrentHashMap<>();
+    private final OfflinePlayerCache offlineCache;
+    
     public DatabaseManager(OrePay plugin) {
         this.plugin = plugin;
-        this.yamlDataManager = new YamlDataManager(plugin);
-        this.useDatabase = plugin.getConfigManager().getBoolean("storage.use-database", false);
+        this.storageExecutor = new StorageExecutor(plugin);
+        this.offlineCache = new OfflinePlayerCache(plugin, this);
+        this.backend = openBackend(getStorageType());
+        this.statisticsBuffer = new StatisticsWriteBuffer(plugin, this);
+    }
+    
+    /**
+     * Get the configured storage type
+     * Configs from before storage.type fall back to storage.use-database and storage.database.type
+     * @return yaml, sqlite, mysql, mapped or memory
+     */
+    private String getStorageType() {
+        String storageType = plugin.getConfigManager().getString("storage.type", null);
         
-        if (useDatabase) {
-            setupDatabase();
+        if (storageType == null) {
+            storageType = plugin.getConfigManager().getBoolean("storage.use-database", false)
+                    ? plugin.getConfigManager().getString("storage.database.type", "sqlite")
+                    : "yaml";
         }
+        
+        return storageType.toLowerCase();
     }
-
+    
     /**
-     * Setup the database connection and tables
+     * Open the storage backend for a storage type
+     * @param storageType The storage type
+     * @return The backend, YAML if the type is unknown or the configured backend can't be opened
      */
-    private void setupDatabase() {
-        String databaseType = plugin.getConfigManager().getString("storage.database.type", "sqlite").toLowerCase();
-        String host, database, username, password;
-        int port;
-
-        try {
-            switch (databaseType) {
-                case "mysql":
-                    host = plugin.getConfigManager().getString("storage.database.mysql.host", "localhost");
-                    port = plugin.getConfigManager().getInt("storage.database.mysql.port", 3306);
-                    database = plugin.getConfigManager().getString("storage.database.mysql.database", "orepay");
-                    username = plugin.getConfigManager().getString("storage.database.mysql.username", "root");
-                    password = plugin.getConfigManager().getString("storage.database.mysql.password", "");
-
-                    Class.forName("com.mysql.jdbc.Driver");
-                    String url = "jdbc:mysql://" + host + ":" + port + "/" + database + "?useSSL=false";
-                    connection = DriverManager.getConnection(url, username, password);
-                    break;
-
-                case "sqlite":
-                default:
-                    Class.forName("org.sqlite.JDBC");
-                    connection = DriverManager.getConnection("jdbc:sqlite:" + plugin.getDataFolder() + "/orepay.db");
-                    break;
-            }
-
-            // Create tables if they don't exist
-            createTables();
-            plugin.getLogger().info("Database connection established!");
-        } catch (ClassNotFoundException | SQLException e) {
-            plugin.getLogger().severe("Error setting up database connection: " + e.getMessage());
-            plugin.getLogger().warning("Falling back to YAML storage...");
-            useDatabase = false;
+    private StorageBackend openBackend(String storageType) {
+        switch (storageType) {
+            case "memory":
+                plugin.getLogger().warning("Using memory storage, statistics and settings are lost on restart");
+                return new MemoryStorageBackend();
+            
+            case "mapped":
+                return openMappedStore();
+            
+            case "sqlite":
+            case "mysql":
+                SqlStorageBackend sqlBackend = SqlStorageBackend.create(plugin, storageExecutor, storageType);
+                if (sqlBackend.open()) {
+                    return sqlBackend;
+                }
+                plugin.getLogger().warning("Falling back to YAML storage...");
+                return new YamlDataManager(plugin, storageExecutor);
+            
+            case "yaml":
+            default:
+                return new YamlDataManager(plugin, storageExecutor);
         }
     }
-
+    
     /**
-     * Create the necessary database tables
+     * Open the memory-mapped store, importing existing data into a new one
+     * @return The mapped store, or the YAML store if the mapped files can't be opened
      */
-    private void createTables() throws SQLException {
-        try (Statement statement = connection.createStatement()) {
-            // Player settings table
-            statement.execute("CREATE TABLE IF NOT EXISTS orepay_settings ("
-                    + "uuid VARCHAR(36) PRIMARY KEY, "
-                    + "rewards_enabled BOOLEAN DEFAULT TRUE"
-                    + ")");
-
-            // Mining statistics table
-            statement.execute("CREATE TABLE IF NOT EXISTS orepay_statistics ("
-                    + "id INTEGER PRIMARY KEY " + (useDatabase && plugin.getConfigManager().getString("storage.database.type", "sqlite").equalsIgnoreCase("mysql") ? "AUTO_INCREMENT" : "AUTOINCREMENT") + ", "
-                    + "uuid VARCHAR(36) NOT NULL, "
-                    + "ore VARCHAR(50) NOT NULL, "
-                    + "times_mined INTEGER DEFAULT 0, "
-                    + "amount_earned DOUBLE DEFAULT 0.0, "
-                    + "UNIQUE(uuid, ore)"
-                    + ")");
+    private StorageBackend openMappedStore() {
+        MappedDataManager mappedStore;
+        try {
+            mappedStore = new MappedDataManager(plugin, storageExecutor);
+        } catch (IOException | RuntimeException e) {
+            plugin.getLogger().severe("Error opening statistics.dat: " + e.getMessage());
+            plugin.getLogger().warning("Falling back to YAML storage...");
+            return new YamlDataManager(plugin, storageExecutor);
+        }
+        
+        if (mappedStore.isCreated()) {
+            importIntoMappedStore(mappedStore);
         }
+        
+        return mappedStore;
     }
-
+    
     /**
-     * Close the database connection
+     * Copy the data of the configured import source into a new mapped store (blocking)
+     * @param mappedStore The new mapped store
      */
-    public void closeConnection() {
-        if (connection != null) {
-            try {
-                connection.close();
-            } catch (SQLException e) {
-                plugin.getLogger().severe("Error closing database connection: " + e.getMessage());
+    private void importIntoMappedStore(MappedDataManager mappedStore) {
+        String source = plugin.getConfigManager().getString("storage.mapped.import-from", "none").toLowerCase();
+        StorageBackend sourceBackend;
+        
+        switch (source) {
+            case "yaml":
+                sourceBackend = new YamlDataManager(plugin, storageExecutor);
+                break;
+            
+            case "sqlite":
+            case "mysql":
+                SqlStorageBackend sqlBackend = SqlStorageBackend.create(plugin, storageExecutor, source);
+                if (!sqlBackend.open()) {
+                    plugin.getLogger().warning("Could not import from " + source + ", the mapped store starts empty");
+                    return;
+                }
+                sourceBackend = sqlBackend;
+                break;
+            
+            default:
+                return;
+        }
+        
+        try {
+            List<UUID> players = new ArrayList<>(sourceBackend.loadPlayerIds().join());
+            for (int from = 0; from < players.size(); from += IMPORT_BATCH_SIZE) {
+                List<UUID> batch = players.subList(from, Math.min(players.size(), from + IMPORT_BATCH_SIZE));
+                
+                sourceBackend.loadPlayers(batch).join().forEach((uuid, stored) -> {
+                    mappedStore.putStatistics(uuid, stored.getStatistics());
+                    if (!stored.isRewardsEnabled()) {
+                        mappedStore.setRewardsEnabled(uuid, false);
+                    }
+                });
             }
+        } catch (CompletionException e) {
+            plugin.getLogger().severe("Error importing from " + source + ": " + e.getCause().getMessage());
+        } finally {
+            sourceBackend.close();
         }
+        
+        mappedStore.save();
+        plugin.getLogger().info("Imported " + mappedStore.getPlayerCount() + " players from " + source + " into statistics.dat");
     }
-
+    
+    /**
+     * Get the storage backend
+     * @return The backend selected by storage.type
+     */
+    public StorageBackend getBackend() {
+        return backend;
+    }
+    
+    /**
+     * Write all buffered data to storage
+     */
+    public void flush() {
+        statisticsBuffer.flush();
+        backend.save();
+    }
+    
+    /**
+     * Flush buffered data and close the storage backend
+     */
+    public void shutdown() {
+        statisticsBuffer.close();
+        
+        // Let queued writes finish before the backend is closed
+        storageExecutor.shutdown(10L);
+        backend.close();
+    }
+    
+    /**
+     * Check if statistics are stored in a database rather than local files
+     * @return True if a database is used
+     */
+    public boolean isUsingDatabase() {
+        return backend instanceof SqlStorageBackend;
+    }
+    
+    /**
+     * Get the executor that runs storage I/O
+     * @return The storage executor
+     */
+    public StorageExecutor getStorageExecutor() {
+        return storageExecutor;
+    }
+    
     /**
      * Check if rewards are enabled for a player
      * @param player The player to check
@@ -118,14 +211,14 @@ public class DatabaseManager {
     public CompletableFuture<Boolean> areRewardsEnabled(Player player) {
         return areRewardsEnabled(player.getUniqueId());
     }
-
+    
     /**
      * Check if rewards are enabled for a player
      * @param uuid The player UUID
      * @return CompletableFuture with true if rewards are enabled, false otherwise
      */
     public CompletableFuture<Boolean> areRewardsEnabled(UUID uuid) {
-        return CompletableFuture.supplyAsync(() -> areRewardsEnabledSync(uuid));
+        return storageExecutor.supply(() -> areRewardsEnabledSync(uuid));
     }
     
     /**
@@ -143,29 +236,30 @@ public class DatabaseManager {
      * @return True if rewards are enabled, false otherwise
      */
     public boolean areRewardsEnabledSync(UUID uuid) {
-        if (!useDatabase) {
-            return yamlDataManager.areRewardsEnabled(uuid);
+        Boolean cached = rewardsEnabledCache.get(uuid);
+        if (cached != null) {
+            return cached;
         }
         
-        try {
-            String sql = "SELECT rewards_enabled FROM orepay_settings WHERE uuid = ?";
-            try (PreparedStatement statement = connection.prepareStatement(sql)) {
-                statement.setString(1, uuid.toString());
-                
-                try (ResultSet resultSet = statement.executeQuery()) {
-                    if (resultSet.next()) {
-                        return resultSet.getBoolean("rewards_enabled");
-                    } else {
-                        // Player not found, insert default value
-                        insertDefaultSettings(uuid);
-                        return true;
+        // Online players are loaded at login, so a miss only happens while that load is
+        // still in flight. Serve the default rather than blocking the caller on storage.
+        if (plugin.getServer().getPlayer(uuid) != null) {
+            if (settingsLoading.add(uuid)) {
+                storageExecutor.execute(() -> {
+                    loadPlayer(uuid);
+                    
+                    // The player may have quit while this was loading, after their data was unloaded
+                    if (plugin.getServer().getPlayer(uuid) == null) {
+                        onlineStatistics.remove(uuid);
+                        rewardsEnabledCache.remove(uuid);
                     }
-                }
+                    settingsLoading.remove(uuid);
+                });
             }
-        } catch (SQLException e) {
-            plugin.getLogger().severe("Error checking rewards enabled: " + e.getMessage());
-            return true; // Default to enabled
+            return true;
         }
+        
+        return readStoredSettings(uuid);
     }
     
     /**
@@ -183,42 +277,151 @@ public class DatabaseManager {
      * @param enabled Whether rewards should be enabled
      */
     public void setRewardsEnabled(UUID uuid, boolean enabled) {
-        if (!useDatabase) {
-            yamlDataManager.setRewardsEnabled(uuid, enabled);
-            return;
+        offlineCache.updateRewardsEnabled(uuid, enabled);
+        
+        // Write through the cache so the change applies immediately
+        if (plugin.getServer().getPlayer(uuid) != null) {
+            rewardsEnabledCache.put(uuid, enabled);
         }
         
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            try {
-                String sql = "INSERT INTO orepay_settings (uuid, rewards_enabled) VALUES (?, ?) "
-                        + "ON CONFLICT(uuid) DO UPDATE SET rewards_enabled = ?";
-                
-                try (PreparedStatement statement = connection.prepareStatement(sql)) {
-                    statement.setString(1, uuid.toString());
-                    statement.setBoolean(2, enabled);
-                    statement.setBoolean(3, enabled);
-                    statement.executeUpdate();
-                }
-            } catch (SQLException e) {
-                plugin.getLogger().severe("Error setting rewards enabled: " + e.getMessage());
-            }
+        backend.setRewardsEnabled(uuid, enabled).exceptionally(e -> {
+            plugin.getLogger().severe("Error setting rewards enabled: " + e.getMessage());
+            return null;
         });
     }
-
+    
     /**
-     * Insert default settings for a player
+     * Load a player's settings and statistics into memory (blocking, call off the main thread)
+     * While loaded, lookups for the player are served without I/O
      * @param uuid The player UUID
-     * @throws SQLException If an error occurs
-     */
-    private void insertDefaultSettings(UUID uuid) throws SQLException {
-        String sql = "INSERT INTO orepay_settings (uuid, rewards_enabled) VALUES (?, ?)";
-        try (PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setString(1, uuid.toString());
-            statement.setBoolean(2, true);
-            statement.executeUpdate();
+     */
+    public void loadPlayer(UUID uuid) {
+        loadPlayers(Collections.singleton(uuid));
+    }
+    
+    /**
+     * Load the settings and statistics of several players into memory with one storage read
+     * (blocking, call off the main thread)
+     * @param uuids The player UUIDs
+     */
+    public void loadPlayers(Collection<UUID> uuids) {
+        // Write these players' buffered increments from an earlier session first so the read includes them
+        statisticsBuffer.flush(uuids);
+        
+        readStoredPlayers(uuids).forEach((uuid, stored) -> {
+            // Don't overwrite values changed while the read was running
+            rewardsEnabledCache.putIfAbsent(uuid, stored.isRewardsEnabled());
+            onlineStatistics.putIfAbsent(uuid, PlayerStatistics.of(stored.getStatistics()));
+        });
+    }
+    
+    /**
+     * Read players from storage (blocking)
+     * Increments still in the write-behind buffer are not included
+     * @param uuids The player UUIDs
+     * @return Map of player UUID to stored data, empty if the read failed
+     */
+    private Map<UUID, StoredPlayer> readStoredPlayers(Collection<UUID> uuids) {
+        try {
+            return backend.loadPlayers(uuids).join();
+        } catch (CompletionException e) {
+            plugin.getLogger().severe("Error loading player data: " + e.getCause().getMessage());
+            return Collections.emptyMap();
         }
     }
-
+    
+    /**
+     * Read a player from storage (blocking)
+     * Increments still in the write-behind buffer are not included
+     * @param uuid The player UUID
+     * @return The stored data, empty if the player has none or the read failed
+     */
+    StoredPlayer readStoredPlayer(UUID uuid) {
+        return readStoredPlayers(Collections.singleton(uuid)).getOrDefault(uuid, StoredPlayer.empty());
+    }
+    
+    /**
+     * Read whether rewards are enabled for a player from storage, without their statistics (blocking)
+     * @param uuid The player UUID
+     * @return The stored setting, true if the player has none or the read failed
+     */
+    boolean readStoredSettings(UUID uuid) {
+        try {
+            return backend.loadSettings(Collections.singleton(uuid)).join().getOrDefault(uuid, true);
+        } catch (CompletionException e) {
+            plugin.getLogger().severe("Error loading player settings: " + e.getCause().getMessage());
+            return true;
+        }
+    }
+    
+    /**
+     * Read a player's totals from storage without their per-ore statistics (blocking)
+     * Increments still in the write-behind buffer are not included
+     * @param uuid The player UUID
+     * @return The stored totals, empty if the player has none or the read failed
+     */
+    PlayerTotals readStoredTotals(UUID uuid) {
+        try {
+            return backend.loadTotals(Collections.singleton(uuid)).join().getOrDefault(uuid, PlayerTotals.empty());
+        } catch (CompletionException e) {
+            plugin.getLogger().severe("Error loading player totals: " + e.getCause().getMessage());
+            return PlayerTotals.empty();
+        }
+    }
+    
+    /**
+     * Remove a player's settings from the cache
+     * @param uuid The player UUID
+     */
+    public void unloadPlayerSettings(UUID uuid) {
+        rewardsEnabledCache.remove(uuid);
+    }
+    
+    /**
+     * Remove a player's statistics from memory
+     * The up-to-date values are handed to the offline cache, call before unloadPlayerSettings
+     * @param uuid The player UUID
+     */
+    public void unloadPlayerStatistics(UUID uuid) {
+        PlayerStatistics statistics = onlineStatistics.remove(uuid);
+        backend.unloadPlayer(uuid);
+        if (statistics != null) {
+            offlineCache.put(uuid, statistics, rewardsEnabledCache.getOrDefault(uuid, true));
+        }
+    }
+    
+    /**
+     * Get a player's statistics without blocking
+     * Online players are served from memory, offline players from a cache that refreshes in the background
+     * @param uuid The player UUID
+     * @return The player's statistics, empty while an offline player is being loaded
+     */
+    public PlayerStatistics getCachedStatistics(UUID uuid) {
+        PlayerStatistics statistics = onlineStatistics.get(uuid);
+        return statistics != null ? statistics : offlineCache.getStatistics(uuid);
+    }
+    
+    /**
+     * Get a player's totals without blocking
+     * Online players are served from memory, offline players from a cache that refreshes in the background
+     * @param uuid The player UUID
+     * @return The player's totals, empty while an offline player is being loaded
+     */
+    public PlayerTotals getCachedTotals(UUID uuid) {
+        PlayerStatistics statistics = onlineStatistics.get(uuid);
+        return statistics != null ? statistics.toTotals() : offlineCache.getTotals(uuid);
+    }
+    
+    /**
+     * Check if rewards are enabled for a player without blocking
+     * @param uuid The player UUID
+     * @return True if rewards are enabled, or if the setting is still being loaded
+     */
+    public boolean areRewardsEnabledCached(UUID uuid) {
+        Boolean cached = rewardsEnabledCache.get(uuid);
+        return cached != null ? cached : offlineCache.areRewardsEnabled(uuid);
+    }
+    
     /**
      * Record a mining statistic
      * @param player The player
@@ -226,35 +429,87 @@ public class DatabaseManager {
      * @param amount The amount earned
      */
     public void recordMiningStatistic(Player player, Material material, double amount) {
-        if (!plugin.getConfigManager().getBoolean("statistics.enabled", true)) {
+        if (!plugin.getConfigManager().getSettings().isStatisticsEnabled()) {
             return;
         }
         
-        if (!useDatabase) {
-            yamlDataManager.recordMiningStatistic(player.getUniqueId(), material.name(), amount);
+        PlayerStatistics statistics = onlineStatistics.get(player.getUniqueId());
+        if (statistics != null) {
+            statistics.record(material.name(), amount);
+        }
+        
+        statisticsBuffer.record(player.getUniqueId(), material.name(), amount);
+    }
+    
+    /**
+     * Record a batch of mined ores
+     * @param player The player
+     * @param ores Map of ore material to the number mined and amount earned
+     */
+    public void recordMiningStatistics(Player player, Map<Material, StatisticEntry> ores) {
+        if (!plugin.getConfigManager().getSettings().isStatisticsEnabled()) {
             return;
         }
         
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            try {
-                String sql = "INSERT INTO orepay_statistics (uuid, ore, times_mined, amount_earned) VALUES (?, ?, 1, ?) "
-                        + "ON CONFLICT(uuid, ore) DO UPDATE SET "
-                        + "times_mined = times_mined + 1, "
-                        + "amount_earned = amount_earned + ?";
-                
-                try (PreparedStatement statement = connection.prepareStatement(sql)) {
-                    statement.setString(1, player.getUniqueId().toString());
-                    statement.setString(2, material.name());
-                    statement.setDouble(3, amount);
-                    statement.setDouble(4, amount);
-                    statement.executeUpdate();
-                }
-            } catch (SQLException e) {
-                plugin.getLogger().severe("Error recording mining statistic: " + e.getMessage());
+        PlayerStatistics statistics = onlineStatistics.get(player.getUniqueId());
+        for (Map.Entry<Material, StatisticEntry> ore : ores.entrySet()) {
+            String oreName = ore.getKey().name();
+            StatisticEntry entry = ore.getValue();
+            
+            if (statistics != null) {
+                statistics.record(oreName, entry.getTimesMined(), entry.getAmountEarned());
             }
+            statisticsBuffer.record(player.getUniqueId(), oreName, entry.getTimesMined(), entry.getAmountEarned());
+        }
+    }
+    
+    /**
+     * Recompute the per-player totals of a database from the per-ore rows
+     * @return CompletableFuture with the number of players processed, or -1 if the rebuild failed
+     */
+    public CompletableFuture<Integer> rebuildPlayerTotals() {
+        if (!(backend instanceof SqlStorageBackend)) {
+            return CompletableFuture.completedFuture(0);
+        }
+        
+        return ((SqlStorageBackend) backend).rebuildPlayerTotals();
+    }
+    
+    /**
+     * Get the statistics history, recorded by database backends
+     * @return The history, or null if it isn't recorded
+     */
+    private StatisticsHistory getStatisticsHistory() {
+        return backend instanceof SqlStorageBackend ? ((SqlStorageBackend) backend).getHistory() : null;
+    }
+    
+    /**
+     * Check if time-bucketed statistics history is recorded
+     * @return True if history is available
+     */
+    public boolean isHistoryEnabled() {
+        return getStatisticsHistory() != null;
+    }
+    
+    /**
+     * Get a player's most recent statistics history buckets
+     * Increments still in the write-behind buffer are not included
+     * @param uuid The player UUID
+     * @param resolution The bucket length
+     * @param count The number of buckets, ending with the current one
+     * @return CompletableFuture with the buckets, oldest first, or an empty list if history isn't recorded
+     */
+    public CompletableFuture<List<HistoryBucket>> getHistory(UUID uuid, BucketResolution resolution, int count) {
+        return storageExecutor.supply(() -> {
+            StatisticsHistory statisticsHistory = getStatisticsHistory();
+            if (statisticsHistory == null || count < 1) {
+                return Collections.<HistoryBucket>emptyList();
+            }
+            
+            return statisticsHistory.readHistory(uuid, resolution, count);
         });
     }
-
+    
     /**
      * Get all statistics for a player
      * @param player The player
@@ -263,43 +518,103 @@ public class DatabaseManager {
     public CompletableFuture<Map<String, StatisticEntry>> getPlayerStatistics(Player player) {
         return getPlayerStatistics(player.getUniqueId());
     }
-
+    
     /**
      * Get all statistics for a player
      * @param uuid The player UUID
      * @return CompletableFuture with map of ore names to StatisticEntry objects
      */
     public CompletableFuture<Map<String, StatisticEntry>> getPlayerStatistics(UUID uuid) {
-        return CompletableFuture.supplyAsync(() -> {
-            if (!useDatabase) {
-                return yamlDataManager.getPlayerStatistics(uuid);
+        return storageExecutor.supply(() -> {
+            PlayerStatistics cached = onlineStatistics.get(uuid);
+            if (cached != null) {
+                return cached.toEntries();
             }
             
-            Map<String, StatisticEntry> statistics = new HashMap<>();
-            
-            try {
-                String sql = "SELECT ore, times_mined, amount_earned FROM orepay_statistics WHERE uuid = ?";
-                try (PreparedStatement statement = connection.prepareStatement(sql)) {
-                    statement.setString(1, uuid.toString());
-                    
-                    try (ResultSet resultSet = statement.executeQuery()) {
-                        while (resultSet.next()) {
-                            String ore = resultSet.getString("ore");
-                            int timesMined = resultSet.getInt("times_mined");
-                            double amountEarned = resultSet.getDouble("amount_earned");
-                            
-                            statistics.put(ore, new StatisticEntry(timesMined, amountEarned));
-                        }
-                    }
-                }
-            } catch (SQLException e) {
-                plugin.getLogger().severe("Error getting player statistics: " + e.getMessage());
+            return readStoredPlayer(uuid).getStatistics();
+        });
+    }
+    
+    /**
+     * Get all statistics for a batch of players, online or offline
+     * Online players are served from memory and the others with one storage read,
+     * increments of offline players still in the write-behind buffer are not included
+     * @param uuids The player UUIDs
+     * @return CompletableFuture with a map of player UUID to their map of ore names to StatisticEntry objects
+     */
+    public CompletableFuture<Map<UUID, Map<String, StatisticEntry>>> getPlayerStatistics(Collection<UUID> uuids) {
+        Map<UUID, Map<String, StatisticEntry>> result = new HashMap<>();
+        Set<UUID> stored = new LinkedHashSet<>();
+        
+        for (UUID uuid : uuids) {
+            PlayerStatistics cached = onlineStatistics.get(uuid);
+            if (cached != null) {
+                result.put(uuid, cached.toEntries());
+            } else {
+                stored.add(uuid);
             }
-            
-            return statistics;
+        }
+        
+        if (stored.isEmpty()) {
+            return CompletableFuture.completedFuture(result);
+        }
+        
+        return backend.loadPlayers(stored).thenApply(players -> {
+            players.forEach((uuid, player) -> result.put(uuid, player.getStatistics()));
+            return result;
         });
     }
     
+    /**
+     * Get the totals for a batch of players, online or offline
+     * Online players are served from memory and the others with one storage read,
+     * increments of offline players still in the write-behind buffer are not included
+     * @param uuids The player UUIDs
+     * @return CompletableFuture with a map of player UUID to totals
+     */
+    public CompletableFuture<Map<UUID, PlayerTotals>> getTotals(Collection<UUID> uuids) {
+        Map<UUID, PlayerTotals> result = new HashMap<>();
+        Set<UUID> stored = new LinkedHashSet<>();
+        
+        for (UUID uuid : uuids) {
+            PlayerStatistics cached = onlineStatistics.get(uuid);
+            if (cached != null) {
+                result.put(uuid, cached.toTotals());
+            } else {
+                stored.add(uuid);
+            }
+        }
+        
+        if (stored.isEmpty()) {
+            return CompletableFuture.completedFuture(result);
+        }
+        
+        return backend.loadTotals(stored).thenApply(totals -> {
+            result.putAll(totals);
+            return result;
+        });
+    }
+    
+    /**
+     * Get a player's statistics, from memory for online players and from storage otherwise (blocking)
+     * @param uuid The player UUID
+     * @return The player's statistics
+     */
+    private PlayerStatistics getStatisticsSync(UUID uuid) {
+        PlayerStatistics statistics = onlineStatistics.get(uuid);
+        return statistics != null ? statistics : PlayerStatistics.of(readStoredPlayer(uuid).getStatistics());
+    }
+    
+    /**
+     * Get a player's totals, from memory for online players and from storage otherwise (blocking)
+     * @param uuid The player UUID
+     * @return The player's totals
+     */
+    private PlayerTotals getTotalsSync(UUID uuid) {
+        PlayerStatistics statistics = onlineStatistics.get(uuid);
+        return statistics != null ? statistics.toTotals() : readStoredTotals(uuid);
+    }
+    
     /**
      * Get the total amount earned by a player
      * @param player The player
@@ -315,7 +630,7 @@ public class DatabaseManager {
      * @return CompletableFuture with the total amount earned
      */
     public CompletableFuture<Double> getTotalEarned(UUID uuid) {
-        return CompletableFuture.supplyAsync(() -> getTotalEarnedSync(uuid));
+        return storageExecutor.supply(() -> getTotalEarnedSync(uuid));
     }
     
     /**
@@ -324,26 +639,7 @@ public class DatabaseManager {
      * @return The total amount earned
      */
     public double getTotalEarnedSync(UUID uuid) {
-        if (!useDatabase) {
-            return yamlDataManager.getTotalEarned(uuid);
-        }
-        
-        try {
-            String sql = "SELECT SUM(amount_earned) AS total FROM orepay_statistics WHERE uuid = ?";
-            try (PreparedStatement statement = connection.prepareStatement(sql)) {
-                statement.setString(1, uuid.toString());
-                
-                try (ResultSet resultSet = statement.executeQuery()) {
-                    if (resultSet.next()) {
-                        return resultSet.getDouble("total");
-                    }
-                }
-            }
-        } catch (SQLException e) {
-            plugin.getLogger().severe("Error getting total earned: " + e.getMessage());
-        }
-        
-        return 0.0;
+        return getTotalsSync(uuid).getTotalEarned();
     }
     
     /**
@@ -361,7 +657,7 @@ public class DatabaseManager {
      * @return CompletableFuture with the total number of ores mined
      */
     public CompletableFuture<Integer> getTotalMined(UUID uuid) {
-        return CompletableFuture.supplyAsync(() -> getTotalMinedSync(uuid));
+        return storageExecutor.supply(() -> getTotalMinedSync(uuid));
     }
     
     /**
@@ -370,28 +666,9 @@ public class DatabaseManager {
      * @return The total number of ores mined
      */
     public int getTotalMinedSync(UUID uuid) {
-        if (!useDatabase) {
-            return yamlDataManager.getTotalMined(uuid);
-        }
-        
-        try {
-            String sql = "SELECT SUM(times_mined) AS total FROM orepay_statistics WHERE uuid = ?";
-            try (PreparedStatement statement = connection.prepareStatement(sql)) {
-                statement.setString(1, uuid.toString());
-                
-                try (ResultSet resultSet = statement.executeQuery()) {
-                    if (resultSet.next()) {
-                        return resultSet.getInt("total");
-                    }
-                }
-            }
-        } catch (SQLException e) {
-            plugin.getLogger().severe("Error getting total mined: " + e.getMessage());
-        }
-        
-        return 0;
+        return getTotalsSync(uuid).getTotalMined();
     }
-
+    
     /**
      * Get the most mined ore by a player
      * @param player The player
@@ -407,7 +684,7 @@ public class DatabaseManager {
      * @return CompletableFuture with the name of the most mined ore
      */
     public CompletableFuture<String> getMostMinedOre(UUID uuid) {
-        return CompletableFuture.supplyAsync(() -> getMostMinedOreSync(uuid));
+        return storageExecutor.supply(() -> getMostMinedOreSync(uuid));
     }
     
     /**
@@ -416,26 +693,7 @@ public class DatabaseManager {
      * @return The name of the most mined ore
      */
     public String getMostMinedOreSync(UUID uuid) {
-        if (!useDatabase) {
-            return yamlDataManager.getMostMinedOre(uuid);
-        }
-        
-        try {
-            String sql = "SELECT ore FROM orepay_statistics WHERE uuid = ? ORDER BY times_mined DESC LIMIT 1";
-            try (PreparedStatement statement = connection.prepareStatement(sql)) {
-                statement.setString(1, uuid.toString());
-                
-                try (ResultSet resultSet = statement.executeQuery()) {
-                    if (resultSet.next()) {
-                        return resultSet.getString("ore");
-                    }
-                }
-            }
-        } catch (SQLException e) {
-            plugin.getLogger().severe("Error getting most mined ore: " + e.getMessage());
-        }
-        
-        return "None";
+        return getTotalsSync(uuid).getMostMinedOre();
     }
     
     /**
@@ -445,27 +703,7 @@ public class DatabaseManager {
      * @return The number of times the ore was mined
      */
     public int getOreMinedCountSync(UUID uuid, String oreName) {
-        if (!useDatabase) {
-            return yamlDataManager.getOreMinedCount(uuid, oreName);
-        }
-        
-        try {
-            String sql = "SELECT times_mined FROM orepay_statistics WHERE uuid = ? AND ore = ?";
-            try (PreparedStatement statement = connection.prepareStatement(sql)) {
-                statement.setString(1, uuid.toString());
-                statement.setString(2, oreName);
-                
-                try (ResultSet resultSet = statement.executeQuery()) {
-                    if (resultSet.next()) {
-                        return resultSet.getInt("times_mined");
-                    }
-                }
-            }
-        } catch (SQLException e) {
-            plugin.getLogger().severe("Error getting ore mined count: " + e.getMessage());
-        }
-        
-        return 0;
+        return getStatisticsSync(uuid).getOreMinedCount(oreName);
     }
     
     /**
@@ -475,29 +713,51 @@ public class DatabaseManager {
      * @return The amount earned
      */
     public double getOreEarnedAmountSync(UUID uuid, String oreName) {
-        if (!useDatabase) {
-            return yamlDataManager.getOreEarnedAmount(uuid, oreName);
-        }
-        
+        return getStatisticsSync(uuid).getOreEarnedAmount(oreName);
+    }
+    
+    /**
+     * Read the players with the highest total amount earned (blocking)
+     * @param limit The maximum number of players
+     * @return Map of player UUID to total earned, highest first
+     */
+    public Map<UUID, Double> readTopEarned(int limit) {
+        return readTop(backend.loadTopEarned(limit));
+    }
+    
+    /**
+     * Read the players with the highest total number of ores mined (blocking)
+     * @param limit The maximum number of players
+     * @return Map of player UUID to total mined, highest first
+     */
+    public Map<UUID, Double> readTopMined(int limit) {
+        return readTop(backend.loadTopMined(limit));
+    }
+    
+    /**
+     * Read the players who mined an ore the most times (blocking)
+     * @param oreName The ore name
+     * @param limit The maximum number of players
+     * @return Map of player UUID to times mined, highest first
+     */
+    public Map<UUID, Double> readTopOreMined(String oreName, int limit) {
+        return readTop(backend.loadTopOreMined(oreName, limit));
+    }
+    
+    /**
+     * Wait for a leaderboard read
+     * @param top The pending read
+     * @return Map of player UUID to value, highest first, or empty if the read failed
+     */
+    private Map<UUID, Double> readTop(CompletableFuture<Map<UUID, Double>> top) {
         try {
-            String sql = "SELECT amount_earned FROM orepay_statistics WHERE uuid = ? AND ore = ?";
-            try (PreparedStatement statement = connection.prepareStatement(sql)) {
-                statement.setString(1, uuid.toString());
-                statement.setString(2, oreName);
-                
-                try (ResultSet resultSet = statement.executeQuery()) {
-                    if (resultSet.next()) {
-                        return resultSet.getDouble("amount_earned");
-                    }
-                }
-            }
-        } catch (SQLException e) {
-            plugin.getLogger().severe("Error getting ore earned amount: " + e.getMessage());
+            return top.join();
+        } catch (CompletionException e) {
+            plugin.getLogger().severe("Error loading leaderboard: " + e.getCause().getMessage());
+            return Collections.emptyMap();
         }
-        
-        return 0.0;
     }
-
+    
     /**
      * Class to hold mining statistic data
      */
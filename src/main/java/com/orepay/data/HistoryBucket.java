@@ -0,0 +1,86 @@
+package com.orepay.data;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * A player's mining statistics within one history bucket
+ */
+public class HistoryBucket {
+    
+    private final BucketResolution resolution;
+    private final long start;
+    private final Map<String, DatabaseManager.StatisticEntry> ores;
+    
+    public HistoryBucket(BucketResolution resolution, long start, Map<String, DatabaseManager.StatisticEntry> ores) {
+        this.resolution = resolution;
+        this.start = start;
+        this.ores = Collections.unmodifiableMap(ores);
+    }
+    
+    /**
+     * Get the length of the bucket
+     * @return The resolution
+     */
+    public BucketResolution getResolution() {
+        return resolution;
+    }
+    
+    /**
+     * Get the start of the bucket
+     * @return The start in epoch seconds
+     */
+    public long getStart() {
+        return start;
+    }
+    
+    /**
+     * Get the statistics per ore
+     * @return Unmodifiable map of ore names to StatisticEntry objects, empty if nothing was mined
+     */
+    public Map<String, DatabaseManager.StatisticEntry> getOres() {
+        return ores;
+    }
+    
+    /**
+     * Get the total amount earned in the bucket
+     * @return The total amount earned
+     */
+    public double getTotalEarned() {
+        double total = 0;
+        for (DatabaseManager.StatisticEntry entry : ores.values()) {
+            total += entry.getAmountEarned();
+        }
+        return total;
+    }
+    
+    /**
+     * Get the total number of ores mined in the bucket
+     * @return The total number of ores mined
+     */
+    public int getTotalMined() {
+        int total = 0;
+        for (DatabaseManager.StatisticEntry entry : ores.values()) {
+            total += entry.getTimesMined();
+        }
+        return total;
+    }
+    
+    /**
+     * Get the ore that paid the most in the bucket
+     * @return The ore name, or null if nothing was mined
+     */
+    public String getTopEarningOre() {
+        String top = null;
+        double topEarned = -1;
+        
+        for (Map.Entry<String, DatabaseManager.StatisticEntry> entry : ores.entrySet()) {
+            if (entry.getValue().getAmountEarned() > topEarned) {
+                top = entry.getKey();
+                topEarned = entry.getValue().getAmountEarned();
+            }
+        }
+        
+        return top;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,155 @@
+package com.orepay.data;
+
+import com.orepay.OrePay;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Moves statistics from the old orepay_statistics table (text uuid and ore columns)
+ * into orepay_player_stats (integer player and ore ids)
+ * Rows are copied in batches, and each batch commits together with the id of its last row,
+ * so an interrupted migration continues where it stopped on the next start
+ */
+class LegacyStatisticsMigration {
+    
+    private static final String LEGACY_TABLE = "orepay_statistics";
+    private static final String BACKUP_TABLE = "orepay_statistics_legacy";
+    private static final String CURSOR_KEY = "legacy-statistics-last-id";
+    
+    private final OrePay plugin;
+    private final SqlStorageBackend backend;
+    private final int batchSize;
+    
+    LegacyStatisticsMigration(OrePay plugin, SqlStorageBackend backend) {
+        this.plugin = plugin;
+        this.backend = backend;
+        this.batchSize = Math.max(100, plugin.getConfigManager().getInt("storage.database.migration-batch-size", 5000));
+    }
+    
+    /**
+     * Run the migration if the old table still exists (blocking)
+     * The whole migration runs as one write, it only happens during startup
+     * @throws SQLException If a batch fails, batches committed before it are kept
+     */
+    void run() throws SQLException {
+        backend.write(connection -> {
+            if (!backend.tableExists(connection, LEGACY_TABLE)) {
+                return null;
+            }
+            
+            long lastId = Long.parseLong(backend.getMeta(connection, CURSOR_KEY, "0"));
+            plugin.getLogger().info(lastId == 0
+                    ? "Migrating mining statistics to the compact schema..."
+                    : "Resuming mining statistics migration after row " + lastId + "...");
+            
+            long batchLastId;
+            while ((batchLastId = copyBatch(connection, lastId)) >= 0) {
+                lastId = batchLastId;
+                plugin.getLogger().info("Migrated statistic rows up to id " + lastId);
+            }
+            
+            // Keep the old rows as a backup, out of the way of the migration check
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("ALTER TABLE " + LEGACY_TABLE + " RENAME TO " + BACKUP_TABLE);
+            }
+            backend.deleteMeta(connection, CURSOR_KEY);
+            
+            plugin.getLogger().info("Mining statistics migration complete, the old table was renamed to " + BACKUP_TABLE);
+            return null;
+        });
+    }
+    
+    /**
+     * Copy the next batch of rows
+     * The rows and the new cursor are written in one transaction
+     * @param connection The connection to use
+     * @param lastId The id of the last row already copied
+     * @return The id of the last row in the batch, or -1 when the old table has been fully copied
+     * @throws SQLException If the batch fails, in which case none of its rows are committed
+     */
+    private long copyBatch(Connection connection, long lastId) throws SQLException {
+        String select = "SELECT id, uuid, ore, times_mined, amount_earned FROM " + LEGACY_TABLE
+                + " WHERE id > ? ORDER BY id LIMIT ?";
+        List<LegacyRow> rows = new ArrayList<>();
+        long batchLastId = -1;
+        
+        try (PreparedStatement query = connection.prepareStatement(select)) {
+            query.setLong(1, lastId);
+            query.setInt(2, batchSize);
+            
+            try (ResultSet resultSet = query.executeQuery()) {
+                while (resultSet.next()) {
+                    batchLastId = resultSet.getLong("id");
+                    
+                    try {
+                        rows.add(new LegacyRow(UUID.fromString(resultSet.getString("uuid")), resultSet.getString("ore"),
+                                resultSet.getInt("times_mined"), resultSet.getDouble("amount_earned")));
+                    } catch (IllegalArgumentException e) {
+                        plugin.getLogger().warning("Skipping statistics row with invalid UUID: " + resultSet.getString("uuid"));
+                    }
+                }
+            }
+        }
+        
+        if (batchLastId < 0) {
+            return -1;
+        }
+        
+        // Dictionary ids are created before the transaction, like regular writes do
+        Map<UUID, Integer> playerIds = new HashMap<>();
+        int[] rowPlayerIds = new int[rows.size()];
+        int[] rowOreIds = new int[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            rowPlayerIds[i] = backend.resolvePlayerId(connection, rows.get(i).uuid, playerIds);
+            rowOreIds[i] = backend.resolveOreId(connection, rows.get(i).oreName);
+        }
+        
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement(backend.addStatisticsSql())) {
+            for (int i = 0; i < rows.size(); i++) {
+                insert.setInt(1, rowPlayerIds[i]);
+                insert.setInt(2, rowOreIds[i]);
+                insert.setInt(3, rows.get(i).timesMined);
+                insert.setDouble(4, rows.get(i).amountEarned);
+                insert.addBatch();
+            }
+            
+            insert.executeBatch();
+            backend.setMeta(connection, CURSOR_KEY, String.valueOf(batchLastId));
+            backend.requestTotalsRebuild(connection);
+            connection.commit();
+            return batchLastId;
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+    
+    /**
+     * A row read from the old table
+     */
+    private static final class LegacyRow {
+        private final UUID uuid;
+        private final String oreName;
+        private final int timesMined;
+        private final double amountEarned;
+        
+        private LegacyRow(UUID uuid, String oreName, int timesMined, double amountEarned) {
+            this.uuid = uuid;
+            this.oreName = oreName;
+            this.timesMined = timesMined;
+            this.amountEarned = amountEarned;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,614 @@
+package com.orepay.data;
+
+import com.orepay.OrePay;
+import org.bukkit.Material;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.ToDoubleFunction;
+import java.util.zip.CRC32;
+
+/**
+ * Stores statistics in a memory-mapped file of fixed-size records, one per player
+ * statistics.dat holds two alternating header copies followed by the records, and
+ * players.idx holds the UUID of each record in order
+ * Counters are read and incremented in place. A periodic checkpoint forces the index and
+ * records to disk and only then commits a new header, so after a crash the header and index are
+ * those of the last checkpoint. The counters are not rolled back: pages written after it may
+ * survive, so a counter can be newer than the checkpoint and an ore's two counters may not match
+ */
+public class MappedDataManager implements StorageBackend {
+    
+    private static final int MAGIC = 0x4F504159;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 4096;
+    private static final long DATA_OFFSET = HEADER_SIZE * 2L;
+    private static final int MAX_SLOTS = 60;
+    private static final int MAX_ORE_NAME_BYTES = 64;
+    private static final int UUID_SIZE = 16;
+    private static final long CHUNK_SIZE = 64L * 1024L * 1024L;
+    
+    // Record layout: 8 byte prefix (flags), then one 16 byte slot per ore (int times mined, 4 unused, double earned)
+    private static final int RECORD_PREFIX = 8;
+    private static final int SLOT_SIZE = 16;
+    private static final byte FLAG_REWARDS_DISABLED = 1;
+    
+    private final OrePay plugin;
+    private final FileChannel dataChannel;
+    private final FileChannel indexChannel;
+    private final boolean created;
+    private final int slotCount;
+    private final int recordSize;
+    private final int recordsPerChunk;
+    private final List<MappedByteBuffer> chunks = new ArrayList<>();
+    private final Map<UUID, Integer> playerIndexes = new HashMap<>();
+    private final List<UUID> players = new ArrayList<>();
+    private final Map<String, Integer> oreSlots = new HashMap<>();
+    private final List<String> ores = new ArrayList<>();
+    private final Set<String> rejectedOres = new HashSet<>();
+    private final Object saveLock = new Object();
+    private int indexedPlayers;
+    private long sequence;
+    private boolean dirty;
+    private BukkitTask forceTask;
+    
+    public MappedDataManager(OrePay plugin, StorageExecutor storageExecutor) throws IOException {
+        this.plugin = plugin;
+        
+        if (!plugin.getDataFolder().exists()) {
+            plugin.getDataFolder().mkdirs();
+        }
+        
+        File dataFile = new File(plugin.getDataFolder(), "statistics.dat");
+        File indexFile = new File(plugin.getDataFolder(), "players.idx");
+        this.created = !dataFile.exists();
+        this.dataChannel = FileChannel.open(dataFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.indexChannel = FileChannel.open(indexFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        
+        Header header = created ? null : readHeader();
+        if (!created && header == null) {
+            dataChannel.close();
+            indexChannel.close();
+            throw new IOException("statistics.dat has no valid header");
+        }
+        
+        // The slot count is fixed when the file is created
+        this.slotCount = header != null
+                ? header.slotCount
+                : Math.min(MAX_SLOTS, Math.max(1, plugin.getConfigManager().getInt("storage.mapped.ore-slots", 32)));
+        this.recordSize = RECORD_PREFIX + slotCount * SLOT_SIZE;
+        this.recordsPerChunk = (int) (CHUNK_SIZE / recordSize);
+        
+        if (header != null) {
+            sequence = header.sequence;
+            for (String ore : header.ores) {
+                oreSlots.put(ore, ores.size());
+                ores.add(ore);
+            }
+            loadIndex(header.playerCount);
+        }
+        
+        // Players and records written after the last checkpoint are dropped
+        indexChannel.truncate((long) indexedPlayers * UUID_SIZE);
+        dataChannel.truncate(DATA_OFFSET + (long) indexedPlayers * recordSize);
+        
+        // Reserve slots for the rewarded ores up front, so the server thread rarely commits a new one
+        synchronized (saveLock) {
+            synchronized (this) {
+                for (Material material : plugin.getConfigManager().getRewardTable().asMap().keySet()) {
+                    if (!rejectedOres.contains(material.name())) {
+                        addOreSlot(material.name());
+                    }
+                }
+                dirty = true;
+            }
+            save();
+        }
+        
+        long interval = Math.max(1L, plugin.getConfigManager().getLong("storage.mapped.force-interval-ticks", 200L));
+        this.forceTask = plugin.getServer().getScheduler().runTaskTimer(plugin,
+                () -> storageExecutor.execute(this::save), interval, interval);
+    }
+    
+    /**
+     * Check if the store files were created by this instance
+     * @return True if the store started empty
+     */
+    public boolean isCreated() {
+        return created;
+    }
+    
+    /**
+     * Get the number of players in the store
+     * @return The number of players
+     */
+    public synchronized int getPlayerCount() {
+        return players.size();
+    }
+    
+    /**
+     * Read the newest valid header copy
+     * @return The header, or null if neither copy is valid
+     * @throws IOException If the file can't be read
+     */
+    private Header readHeader() throws IOException {
+        Header first = readHeader(0);
+        Header second = readHeader(HEADER_SIZE);
+        
+        if (first == null) {
+            return second;
+        }
+        if (second == null) {
+            return first;
+        }
+        return first.sequence >= second.sequence ? first : second;
+    }
+    
+    /**
+     * Read and verify one header copy
+     * @param position The position of the copy
+     * @return The header, or null if the copy is missing or corrupt
+     * @throws IOException If the file can't be read
+     */
+    private Header readHeader(long position) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE);
+        while (buffer.hasRemaining() && dataChannel.read(buffer, position + buffer.position()) > 0) {
+            // Keep reading until the copy is complete or the file ends
+        }
+        if (buffer.hasRemaining()) {
+            return null;
+        }
+        buffer.flip();
+        
+        try {
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                return null;
+            }
+            
+            Header header = new Header();
+            header.sequence = buffer.getLong();
+            header.slotCount = buffer.getInt();
+            header.playerCount = buffer.getInt();
+            int oreCount = buffer.getInt();
+            if (header.slotCount < 1 || header.slotCount > MAX_SLOTS || oreCount < 0 || oreCount > header.slotCount || header.playerCount < 0) {
+                return null;
+            }
+            
+            for (int i = 0; i < oreCount; i++) {
+                byte[] name = new byte[buffer.getShort()];
+                buffer.get(name);
+                header.ores.add(new String(name, StandardCharsets.UTF_8));
+            }
+            
+            CRC32 crc = new CRC32();
+            crc.update(buffer.array(), 0, buffer.position());
+            return buffer.getInt() == (int) crc.getValue() ? header : null;
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+    
+    /**
+     * Write a header to the copy not holding the current one and force it to disk
+     * @param playerCount The number of players whose index entries and records are on disk
+     * @param oreNames The ore of each slot in use
+     * @throws IOException If the header can't be written
+     */
+    private void writeHeader(int playerCount, List<String> oreNames) throws IOException {
+        long nextSequence = sequence + 1;
+        
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE);
+        buffer.putInt(MAGIC);
+        buffer.putInt(VERSION);
+        buffer.putLong(nextSequence);
+        buffer.putInt(slotCount);
+        buffer.putInt(playerCount);
+        buffer.putInt(oreNames.size());
+        for (String ore : oreNames) {
+            byte[] name = ore.getBytes(StandardCharsets.UTF_8);
+            buffer.putShort((short) name.length);
+            buffer.put(name);
+        }
+        
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, buffer.position());
+        buffer.putInt((int) crc.getValue());
+        buffer.rewind();
+        
+        long position = (nextSequence & 1L) == 0 ? 0 : HEADER_SIZE;
+        while (buffer.hasRemaining()) {
+            dataChannel.write(buffer, position + buffer.position());
+        }
+        dataChannel.force(false);
+        sequence = nextSequence;
+    }
+    
+    /**
+     * Load the committed index entries
+     * @param playerCount The number of players in the header
+     * @throws IOException If the index is shorter than the header says
+     */
+    private void loadIndex(int playerCount) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(playerCount * UUID_SIZE);
+        while (buffer.hasRemaining() && indexChannel.read(buffer, buffer.position()) > 0) {
+            // Keep reading until all entries are loaded or the file ends
+        }
+        if (buffer.hasRemaining()) {
+            throw new IOException("players.idx has fewer entries than statistics.dat");
+        }
+        buffer.flip();
+        
+        for (int i = 0; i < playerCount; i++) {
+            UUID uuid = new UUID(buffer.getLong(), buffer.getLong());
+            playerIndexes.put(uuid, i);
+            players.add(uuid);
+        }
+        indexedPlayers = playerCount;
+    }
+    
+    /**
+     * Get the mapped chunk holding a record, mapping it if needed
+     * @param index The record index
+     * @return The chunk
+     */
+    private MappedByteBuffer chunkFor(int index) {
+        int chunkIndex = index / recordsPerChunk;
+        
+        while (chunks.size() <= chunkIndex) {
+            long position = DATA_OFFSET + (long) chunks.size() * recordsPerChunk * recordSize;
+            try {
+                chunks.add(dataChannel.map(FileChannel.MapMode.READ_WRITE, position, (long) recordsPerChunk * recordSize));
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not map statistics.dat: " + e.getMessage(), e);
+            }
+        }
+        
+        return chunks.get(chunkIndex);
+    }
+    
+    /**
+     * Get the position of a record within its chunk
+     * @param index The record index
+     * @return The position
+     */
+    private int recordPosition(int index) {
+        return (index % recordsPerChunk) * recordSize;
+    }
+    
+    /**
+     * Get a player's record index, adding a record for new players
+     * The index entry is written to disk at the next checkpoint
+     * @param uuid The player UUID
+     * @return The record index
+     */
+    private int getOrCreatePlayerIndex(UUID uuid) {
+        Integer index = playerIndexes.get(uuid);
+        if (index != null) {
+            return index;
+        }
+        
+        int newIndex = players.size();
+        playerIndexes.put(uuid, newIndex);
+        players.add(uuid);
+        return newIndex;
+    }
+    
+    /**
+     * Assign a slot to an ore, only call while holding both locks
+     * @param oreName The ore name
+     * @return The slot, or -1 if every slot is taken
+     */
+    private int addOreSlot(String oreName) {
+        Integer slot = oreSlots.get(oreName);
+        if (slot != null) {
+            return slot;
+        }
+        
+        if (ores.size() >= slotCount || oreName.getBytes(StandardCharsets.UTF_8).length > MAX_ORE_NAME_BYTES) {
+            rejectedOres.add(oreName);
+            plugin.getLogger().warning("No free slot in statistics.dat for " + oreName
+                    + ", increase storage.mapped.ore-slots and import the data into a new file");
+            return -1;
+        }
+        
+        oreSlots.put(oreName, ores.size());
+        ores.add(oreName);
+        return ores.size() - 1;
+    }
+    
+    /**
+     * Get the slot of an ore, committing a new slot right away
+     * A slot that is lost in a crash would credit its counts to the next ore given the slot
+     * @param oreName The ore name
+     * @return The slot, or -1 if every slot is taken
+     */
+    private int getOrCreateOreSlot(String oreName) {
+        synchronized (this) {
+            Integer slot = oreSlots.get(oreName);
+            if (slot != null) {
+                return slot;
+            }
+            if (rejectedOres.contains(oreName)) {
+                return -1;
+            }
+        }
+        
+        synchronized (saveLock) {
+            int slot;
+            synchronized (this) {
+                slot = addOreSlot(oreName);
+                dirty = true;
+            }
+            save();
+            return slot;
+        }
+    }
+    
+    @Override
+    public String getName() {
+        return "mapped";
+    }
+    
+    @Override
+    public CompletableFuture<Map<UUID, StoredPlayer>> loadPlayers(Collection<UUID> uuids) {
+        Map<UUID, StoredPlayer> result = new HashMap<>();
+        synchronized (this) {
+            for (UUID uuid : uuids) {
+                result.put(uuid, new StoredPlayer(getPlayerStatistics(uuid), areRewardsEnabled(uuid)));
+            }
+        }
+        
+        return CompletableFuture.completedFuture(result);
+    }
+    
+    @Override
+    public synchronized CompletableFuture<Map<UUID, Boolean>> loadSettings(Collection<UUID> uuids) {
+        Map<UUID, Boolean> result = new HashMap<>();
+        for (UUID uuid : uuids) {
+            result.put(uuid, areRewardsEnabled(uuid));
+        }
+        
+        return CompletableFuture.completedFuture(result);
+    }
+    
+    @Override
+    public synchronized CompletableFuture<Set<UUID>> loadPlayerIds() {
+        return CompletableFuture.completedFuture(new HashSet<>(players));
+    }
+    
+    @Override
+    public CompletableFuture<Void> applyDeltas(List<StatisticDelta> deltas) {
+        for (StatisticDelta delta : deltas) {
+            int slot = getOrCreateOreSlot(delta.getOreName());
+            if (slot < 0) {
+                continue;
+            }
+            
+            synchronized (this) {
+                int index = getOrCreatePlayerIndex(delta.getUuid());
+                MappedByteBuffer chunk = chunkFor(index);
+                int position = recordPosition(index) + RECORD_PREFIX + slot * SLOT_SIZE;
+                
+                chunk.putInt(position, chunk.getInt(position) + delta.getTimesMined());
+                chunk.putDouble(position + 8, chunk.getDouble(position + 8) + delta.getAmountEarned());
+                dirty = true;
+            }
+        }
+        
+        return CompletableFuture.completedFuture(null);
+    }
+    
+    /**
+     * Replace a player's statistics, used when importing from another storage type
+     * @param uuid The player UUID
+     * @param statistics Map of ore names to StatisticEntry objects
+     */
+    public void putStatistics(UUID uuid, Map<String, DatabaseManager.StatisticEntry> statistics) {
+        for (Map.Entry<String, DatabaseManager.StatisticEntry> entry : statistics.entrySet()) {
+            int slot = getOrCreateOreSlot(entry.getKey());
+            if (slot < 0) {
+                continue;
+            }
+            
+            synchronized (this) {
+                int index = getOrCreatePlayerIndex(uuid);
+                MappedByteBuffer chunk = chunkFor(index);
+                int position = recordPosition(index) + RECORD_PREFIX + slot * SLOT_SIZE;
+                
+                chunk.putInt(position, entry.getValue().getTimesMined());
+                chunk.putDouble(position + 8, entry.getValue().getAmountEarned());
+                dirty = true;
+            }
+        }
+    }
+    
+    /**
+     * Read a player's statistics from the record
+     * @param uuid The player UUID
+     * @return Map of ore names to StatisticEntry objects
+     */
+    private synchronized Map<String, DatabaseManager.StatisticEntry> getPlayerStatistics(UUID uuid) {
+        Map<String, DatabaseManager.StatisticEntry> result = new HashMap<>();
+        
+        Integer index = playerIndexes.get(uuid);
+        if (index == null) {
+            return result;
+        }
+        
+        MappedByteBuffer chunk = chunkFor(index);
+        int position = recordPosition(index) + RECORD_PREFIX;
+        for (int slot = 0; slot < ores.size(); slot++, position += SLOT_SIZE) {
+            int timesMined = chunk.getInt(position);
+            if (timesMined != 0) {
+                result.put(ores.get(slot), new DatabaseManager.StatisticEntry(timesMined, chunk.getDouble(position + 8)));
+            }
+        }
+        
+        return result;
+    }
+    
+    @Override
+    public CompletableFuture<Map<UUID, Double>> loadTopEarned(int limit) {
+        return CompletableFuture.completedFuture(getTop(ores -> ores.values().stream().mapToDouble(DatabaseManager.StatisticEntry::getAmountEarned).sum(), limit));
+    }
+    
+    @Override
+    public CompletableFuture<Map<UUID, Double>> loadTopMined(int limit) {
+        return CompletableFuture.completedFuture(getTop(ores -> ores.values().stream().mapToInt(DatabaseManager.StatisticEntry::getTimesMined).sum(), limit));
+    }
+    
+    @Override
+    public CompletableFuture<Map<UUID, Double>> loadTopOreMined(String oreName, int limit) {
+        return CompletableFuture.completedFuture(getTop(ores -> ores.containsKey(oreName) ? ores.get(oreName).getTimesMined() : 0, limit));
+    }
+    
+    /**
+     * Get the players with the highest value of a metric
+     * @param metric Computes the value from a player's map of ore names to StatisticEntry objects
+     * @param limit The maximum number of players
+     * @return Map of player UUID to value, highest first
+     */
+    private Map<UUID, Double> getTop(ToDoubleFunction<Map<String, DatabaseManager.StatisticEntry>> metric, int limit) {
+        List<UUID> snapshot;
+        synchronized (this) {
+            snapshot = new ArrayList<>(players);
+        }
+        
+        Map<UUID, Double> values = new HashMap<>();
+        for (UUID uuid : snapshot) {
+            double value = metric.applyAsDouble(getPlayerStatistics(uuid));
+            if (value > 0) {
+                values.put(uuid, value);
+            }
+        }
+        
+        Map<UUID, Double> top = new LinkedHashMap<>();
+        values.entrySet().stream()
+                .sorted(Map.Entry.<UUID, Double>comparingByValue().reversed())
+                .limit(limit)
+                .forEach(entry -> top.put(entry.getKey(), entry.getValue()));
+        
+        return top;
+    }
+    
+    /**
+     * Read a player's rewards flag from the record
+     * @param uuid The player UUID
+     * @return True if rewards are enabled
+     */
+    private synchronized boolean areRewardsEnabled(UUID uuid) {
+        Integer index = playerIndexes.get(uuid);
+        if (index == null) {
+            return true;
+        }
+        
+        return (chunkFor(index).get(recordPosition(index)) & FLAG_REWARDS_DISABLED) == 0;
+    }
+    
+    @Override
+    public synchronized CompletableFuture<Void> setRewardsEnabled(UUID uuid, boolean enabled) {
+        int index = getOrCreatePlayerIndex(uuid);
+        MappedByteBuffer chunk = chunkFor(index);
+        int position = recordPosition(index);
+        
+        byte flags = chunk.get(position);
+        chunk.put(position, (byte) (enabled ? flags & ~FLAG_REWARDS_DISABLED : flags | FLAG_REWARDS_DISABLED));
+        dirty = true;
+        return CompletableFuture.completedFuture(null);
+    }
+    
+    /**
+     * Write a checkpoint: new index entries, then the records, then a header committing both
+     */
+    @Override
+    public void save() {
+        synchronized (saveLock) {
+            List<UUID> newPlayers;
+            List<String> oreNames;
+            List<MappedByteBuffer> mapped;
+            int playerCount;
+            
+            synchronized (this) {
+                if (!dirty) {
+                    return;
+                }
+                dirty = false;
+                
+                playerCount = players.size();
+                newPlayers = new ArrayList<>(players.subList(indexedPlayers, playerCount));
+                oreNames = new ArrayList<>(ores);
+                mapped = new ArrayList<>(chunks);
+            }
+            
+            try {
+                ByteBuffer buffer = ByteBuffer.allocate(newPlayers.size() * UUID_SIZE);
+                for (UUID uuid : newPlayers) {
+                    buffer.putLong(uuid.getMostSignificantBits());
+                    buffer.putLong(uuid.getLeastSignificantBits());
+                }
+                buffer.flip();
+                
+                long position = (long) indexedPlayers * UUID_SIZE;
+                while (buffer.hasRemaining()) {
+                    indexChannel.write(buffer, position + buffer.position());
+                }
+                indexChannel.force(false);
+                
+                for (MappedByteBuffer chunk : mapped) {
+                    chunk.force();
+                }
+                
+                writeHeader(playerCount, oreNames);
+                indexedPlayers = playerCount;
+            } catch (IOException | RuntimeException e) {
+                plugin.getLogger().severe("Error saving statistics.dat: " + e.getMessage());
+                synchronized (this) {
+                    dirty = true;
+                }
+            }
+        }
+    }
+    
+    @Override
+    public void close() {
+        if (forceTask != null) {
+            forceTask.cancel();
+            forceTask = null;
+        }
+        
+        save();
+        
+        try {
+            dataChannel.close();
+            indexChannel.close();
+        } catch (IOException e) {
+            plugin.getLogger().severe("Error closing statistics.dat: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * A decoded header copy
+     */
+    private static final class Header {
+        private long sequence;
+        private int slotCount;
+        private int playerCount;
+        private final List<String> ores = new ArrayList<>();
+    }
+}
\ No newline at end of file
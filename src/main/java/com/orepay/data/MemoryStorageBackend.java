@@ -0,0 +1,156 @@
+package com.orepay.data;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Keeps statistics and settings in memory only, nothing survives a restart
+ * Meant for test servers and benchmarks, and as the base of file stores that load everything at startup
+ * All operations complete immediately
+ */
+public class MemoryStorageBackend implements StorageBackend {
+    
+    protected final Map<UUID, Map<String, MutableStatistic>> statistics = new HashMap<>();
+    protected final Map<UUID, Boolean> settings = new HashMap<>();
+    
+    @Override
+    public String getName() {
+        return "memory";
+    }
+    
+    @Override
+    public synchronized CompletableFuture<Map<UUID, StoredPlayer>> loadPlayers(Collection<UUID> uuids) {
+        Map<UUID, StoredPlayer> players = new HashMap<>();
+        
+        for (UUID uuid : uuids) {
+            Map<String, DatabaseManager.StatisticEntry> entries = new HashMap<>();
+            Map<String, MutableStatistic> ores = statistics.get(uuid);
+            if (ores != null) {
+                for (Map.Entry<String, MutableStatistic> entry : ores.entrySet()) {
+                    entries.put(entry.getKey(), new DatabaseManager.StatisticEntry(entry.getValue().timesMined, entry.getValue().amountEarned));
+                }
+            }
+            players.put(uuid, new StoredPlayer(entries, settings.getOrDefault(uuid, true)));
+        }
+        
+        return CompletableFuture.completedFuture(players);
+    }
+    
+    @Override
+    public synchronized CompletableFuture<Map<UUID, Boolean>> loadSettings(Collection<UUID> uuids) {
+        Map<UUID, Boolean> result = new HashMap<>();
+        for (UUID uuid : uuids) {
+            result.put(uuid, settings.getOrDefault(uuid, true));
+        }
+        return CompletableFuture.completedFuture(result);
+    }
+    
+    @Override
+    public synchronized CompletableFuture<Set<UUID>> loadPlayerIds() {
+        Set<UUID> players = new HashSet<>(statistics.keySet());
+        players.addAll(settings.keySet());
+        return CompletableFuture.completedFuture(players);
+    }
+    
+    @Override
+    public synchronized CompletableFuture<Void> applyDeltas(List<StatisticDelta> deltas) {
+        for (StatisticDelta delta : deltas) {
+            MutableStatistic statistic = statistics
+                    .computeIfAbsent(delta.getUuid(), key -> new LinkedHashMap<>())
+                    .computeIfAbsent(delta.getOreName(), key -> new MutableStatistic());
+            
+            statistic.timesMined += delta.getTimesMined();
+            statistic.amountEarned += delta.getAmountEarned();
+            statisticChanged(delta.getUuid(), delta.getOreName(), statistic);
+        }
+        
+        return CompletableFuture.completedFuture(null);
+    }
+    
+    @Override
+    public synchronized CompletableFuture<Void> setRewardsEnabled(UUID uuid, boolean enabled) {
+        settings.put(uuid, enabled);
+        settingChanged(uuid, enabled);
+        return CompletableFuture.completedFuture(null);
+    }
+    
+    @Override
+    public CompletableFuture<Map<UUID, Double>> loadTopEarned(int limit) {
+        return CompletableFuture.completedFuture(getTop(ores -> ores.values().stream().mapToDouble(statistic -> statistic.amountEarned).sum(), limit));
+    }
+    
+    @Override
+    public CompletableFuture<Map<UUID, Double>> loadTopMined(int limit) {
+        return CompletableFuture.completedFuture(getTop(ores -> ores.values().stream().mapToInt(statistic -> statistic.timesMined).sum(), limit));
+    }
+    
+    @Override
+    public CompletableFuture<Map<UUID, Double>> loadTopOreMined(String oreName, int limit) {
+        return CompletableFuture.completedFuture(getTop(ores -> ores.containsKey(oreName) ? ores.get(oreName).timesMined : 0, limit));
+    }
+    
+    /**
+     * Get the players with the highest value of a metric
+     * @param metric Computes the value from a player's map of ore names to statistics
+     * @param limit The maximum number of players
+     * @return Map of player UUID to value, highest first
+     */
+    private synchronized Map<UUID, Double> getTop(ToDoubleFunction<Map<String, MutableStatistic>> metric, int limit) {
+        Map<UUID, Double> values = new HashMap<>();
+        for (Map.Entry<UUID, Map<String, MutableStatistic>> player : statistics.entrySet()) {
+            double value = metric.applyAsDouble(player.getValue());
+            if (value > 0) {
+                values.put(player.getKey(), value);
+            }
+        }
+        
+        Map<UUID, Double> top = new LinkedHashMap<>();
+        values.entrySet().stream()
+                .sorted(Map.Entry.<UUID, Double>comparingByValue().reversed())
+                .limit(limit)
+                .forEach(entry -> top.put(entry.getKey(), entry.getValue()));
+        
+        return top;
+    }
+    
+    /**
+     * Called after a player's statistic for an ore changed, while holding the lock
+     * @param uuid The player UUID
+     * @param oreName The ore name
+     * @param statistic The updated statistic
+     */
+    protected void statisticChanged(UUID uuid, String oreName, MutableStatistic statistic) {
+    }
+    
+    /**
+     * Called after a player's setting changed, while holding the lock
+     * @param uuid The player UUID
+     * @param enabled Whether rewards are enabled
+     */
+    protected void settingChanged(UUID uuid, boolean enabled) {
+    }
+    
+    @Override
+    public void save() {
+    }
+    
+    @Override
+    public void close() {
+    }
+    
+    /**
+     * Mutable statistic values for a single ore
+     */
+    protected static final class MutableStatistic {
+        protected int timesMined;
+        protected double amountEarned;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,36 @@
+package com.orepay.data;
+
+import com.orepay.OrePay;
+import com.zaxxer.hikari.HikariConfig;
+
+/**
+ * MySQL storage, configured under storage.database.mysql
+ */
+public class MysqlStorageBackend extends SqlStorageBackend {
+    
+    public MysqlStorageBackend(OrePay plugin, StorageExecutor storageExecutor) {
+        super(plugin, storageExecutor, SqlDialect.MYSQL);
+    }
+    
+    @Override
+    public String getName() {
+        return "mysql";
+    }
+    
+    @Override
+    protected void configure(HikariConfig config) {
+        String host = plugin.getConfigManager().getString("storage.database.mysql.host", "localhost");
+        int port = plugin.getConfigManager().getInt("storage.database.mysql.port", 3306);
+        String database = plugin.getConfigManager().getString("storage.database.mysql.database", "orepay");
+        
+        config.setDriverClassName("com.mysql.cj.jdbc.Driver");
+        config.setJdbcUrl("jdbc:mysql://" + host + ":" + port + "/" + database + "?useSSL=false");
+        config.setUsername(plugin.getConfigManager().getString("storage.database.mysql.username", "root"));
+        config.setPassword(plugin.getConfigManager().getString("storage.database.mysql.password", ""));
+        config.addDataSourceProperty("cachePrepStmts", "true");
+        config.addDataSourceProperty("prepStmtCacheSize", "64");
+        config.addDataSourceProperty("useServerPrepStmts", "true");
+        // Send each statistics batch as multi-row statements instead of one round trip per row
+        config.addDataSourceProperty("rewriteBatchedStatements", "true");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,241 @@
+package com.orepay.data;
+
+import com.orepay.OrePay;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded cache of offline players' statistics, totals and settings for placeholders
+ * Lookups never block: a missing or stale value returns the last known value (or the default)
+ * and schedules a refresh on the storage executor. Each kind of value is loaded on its own,
+ * so a totals placeholder doesn't read the player's per-ore statistics
+ */
+public class OfflinePlayerCache {
+    
+    private static final PlayerStatistics EMPTY_STATISTICS = PlayerStatistics.of(Collections.emptyMap());
+    
+    private final DatabaseManager databaseManager;
+    private final Map<UUID, Entry> entries;
+    private final Set<UUID> refreshingStatistics = ConcurrentHashMap.newKeySet();
+    private final Set<UUID> refreshingTotals = ConcurrentHashMap.newKeySet();
+    private final Set<UUID> refreshingSettings = ConcurrentHashMap.newKeySet();
+    private final long ttlNanos;
+    
+    public OfflinePlayerCache(OrePay plugin, DatabaseManager databaseManager) {
+        this.databaseManager = databaseManager;
+        
+        int maxSize = Math.max(1, plugin.getConfigManager().getInt("statistics.offline-cache.max-size", 1000));
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(Math.max(1L, plugin.getConfigManager().getLong("statistics.offline-cache.ttl-seconds", 60L)));
+        
+        // Access-ordered so the least recently used entry is evicted first
+        this.entries = new LinkedHashMap<UUID, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+    
+    /**
+     * Get a player's statistics without blocking
+     * @param uuid The player UUID
+     * @return The cached statistics, or empty statistics if they are not loaded yet
+     */
+    public PlayerStatistics getStatistics(UUID uuid) {
+        Entry entry = getEntry(uuid);
+        if (isStale(entry.statistics) && refreshingStatistics.add(uuid)) {
+            databaseManager.getStorageExecutor().execute(() -> refreshStatistics(uuid));
+        }
+        return entry.statistics != null ? entry.statistics.value : EMPTY_STATISTICS;
+    }
+    
+    /**
+     * Get a player's totals without blocking
+     * @param uuid The player UUID
+     * @return The cached totals, or empty totals if they are not loaded yet
+     */
+    public PlayerTotals getTotals(UUID uuid) {
+        Entry entry = getEntry(uuid);
+        if (isStale(entry.totals) && refreshingTotals.add(uuid)) {
+            databaseManager.getStorageExecutor().execute(() -> refreshTotals(uuid));
+        }
+        return entry.totals != null ? entry.totals.value : PlayerTotals.empty();
+    }
+    
+    /**
+     * Check if rewards are enabled for a player without blocking
+     * @param uuid The player UUID
+     * @return The cached setting, or true if it is not loaded yet
+     */
+    public boolean areRewardsEnabled(UUID uuid) {
+        Entry entry = getEntry(uuid);
+        if (isStale(entry.rewardsEnabled) && refreshingSettings.add(uuid)) {
+            databaseManager.getStorageExecutor().execute(() -> refreshSettings(uuid));
+        }
+        return entry.rewardsEnabled == null || entry.rewardsEnabled.value;
+    }
+    
+    /**
+     * Store a player's data, e.g. when they go offline with up-to-date values
+     * @param uuid The player UUID
+     * @param statistics The player's statistics
+     * @param rewardsEnabled Whether rewards are enabled for the player
+     */
+    public synchronized void put(UUID uuid, PlayerStatistics statistics, boolean rewardsEnabled) {
+        long now = System.nanoTime();
+        entries.put(uuid, new Entry(new Value<>(statistics, now), new Value<>(statistics.toTotals(), now), new Value<>(rewardsEnabled, now)));
+    }
+    
+    /**
+     * Update the cached rewards setting for a player, if the player is cached
+     * @param uuid The player UUID
+     * @param rewardsEnabled Whether rewards are enabled for the player
+     */
+    public synchronized void updateRewardsEnabled(UUID uuid, boolean rewardsEnabled) {
+        Entry entry = entries.get(uuid);
+        if (entry != null) {
+            entries.put(uuid, new Entry(entry.statistics, entry.totals, new Value<>(rewardsEnabled, System.nanoTime())));
+        }
+    }
+    
+    /**
+     * Remove a player from the cache
+     * @param uuid The player UUID
+     */
+    public synchronized void invalidate(UUID uuid) {
+        entries.remove(uuid);
+    }
+    
+    /**
+     * Get the number of cached players
+     * @return The number of cached players
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+    
+    /**
+     * Get a player's cached entry
+     * @param uuid The player UUID
+     * @return The cached entry, with no values if the player is not cached
+     */
+    private synchronized Entry getEntry(UUID uuid) {
+        Entry entry = entries.get(uuid);
+        return entry != null ? entry : Entry.EMPTY;
+    }
+    
+    /**
+     * Check if a cached value needs to be loaded
+     * @param value The cached value, or null if it was never loaded
+     * @return True if the value is missing or older than the TTL
+     */
+    private boolean isStale(Value<?> value) {
+        return value == null || System.nanoTime() - value.loadedAt > ttlNanos;
+    }
+    
+    /**
+     * Load a player's statistics and settings from storage into the cache (blocking)
+     * Values stored while the read was running, e.g. the snapshot taken when the player quit, are kept
+     * @param uuid The player UUID
+     */
+    private void refreshStatistics(UUID uuid) {
+        try {
+            long startedAt = System.nanoTime();
+            StoredPlayer stored = databaseManager.readStoredPlayer(uuid);
+            PlayerStatistics statistics = PlayerStatistics.of(stored.getStatistics());
+            synchronized (this) {
+                Entry entry = entries.getOrDefault(uuid, Entry.EMPTY);
+                entries.put(uuid, new Entry(newer(entry.statistics, statistics, startedAt),
+                        newer(entry.totals, statistics.toTotals(), startedAt), newer(entry.rewardsEnabled, stored.isRewardsEnabled(), startedAt)));
+            }
+        } finally {
+            refreshingStatistics.remove(uuid);
+        }
+    }
+    
+    /**
+     * Load a player's totals from storage into the cache (blocking)
+     * @param uuid The player UUID
+     */
+    private void refreshTotals(UUID uuid) {
+        try {
+            long startedAt = System.nanoTime();
+            PlayerTotals totals = databaseManager.readStoredTotals(uuid);
+            synchronized (this) {
+                Entry entry = entries.getOrDefault(uuid, Entry.EMPTY);
+                entries.put(uuid, new Entry(entry.statistics, newer(entry.totals, totals, startedAt), entry.rewardsEnabled));
+            }
+        } finally {
+            refreshingTotals.remove(uuid);
+        }
+    }
+    
+    /**
+     * Load a player's settings from storage into the cache (blocking)
+     * @param uuid The player UUID
+     */
+    private void refreshSettings(UUID uuid) {
+        try {
+            long startedAt = System.nanoTime();
+            boolean rewardsEnabled = databaseManager.readStoredSettings(uuid);
+            synchronized (this) {
+                Entry entry = entries.getOrDefault(uuid, Entry.EMPTY);
+                entries.put(uuid, new Entry(entry.statistics, entry.totals, newer(entry.rewardsEnabled, rewardsEnabled, startedAt)));
+            }
+        } finally {
+            refreshingSettings.remove(uuid);
+        }
+    }
+    
+    /**
+     * Pick between a cached value and one read from storage
+     * @param current The cached value, or null if none is cached
+     * @param loaded The value read from storage
+     * @param startedAt When the read started
+     * @param <T> The value type
+     * @return The cached value if it was stored after the read started, otherwise the loaded value
+     */
+    private static <T> Value<T> newer(Value<T> current, T loaded, long startedAt) {
+        if (current != null && current.loadedAt - startedAt >= 0) {
+            return current;
+        }
+        return new Value<>(loaded, startedAt);
+    }
+    
+    /**
+     * Cached data for one player, each value null until it is first loaded
+     */
+    private static final class Entry {
+        private static final Entry EMPTY = new Entry(null, null, null);
+        
+        private final Value<PlayerStatistics> statistics;
+        private final Value<PlayerTotals> totals;
+        private final Value<Boolean> rewardsEnabled;
+        
+        private Entry(Value<PlayerStatistics> statistics, Value<PlayerTotals> totals, Value<Boolean> rewardsEnabled) {
+            this.statistics = statistics;
+            this.totals = totals;
+            this.rewardsEnabled = rewardsEnabled;
+        }
+    }
+    
+    /**
+     * A cached value with the time it was loaded
+     * @param <T> The value type
+     */
+    private static final class Value<T> {
+        private final T value;
+        private final long loadedAt;
+        
+        private Value(T value, long loadedAt) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
\ No newline at end of file
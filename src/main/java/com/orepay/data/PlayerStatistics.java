@@ -0,0 +1,149 @@
+package com.orepay.data;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * In-memory mining statistics for an online player
+ * Totals and the most mined ore are updated in place on every reward, so reads need no I/O
+ */
+public final class PlayerStatistics {
+    
+    private final Map<String, MutableEntry> ores = new LinkedHashMap<>();
+    private double totalEarned;
+    private int totalMined;
+    private String mostMinedOre = "None";
+    private int mostMinedCount;
+    
+    private PlayerStatistics() {
+    }
+    
+    /**
+     * Build statistics from stored entries
+     * @param entries Map of ore names to StatisticEntry objects
+     * @return The statistics
+     */
+    public static PlayerStatistics of(Map<String, DatabaseManager.StatisticEntry> entries) {
+        PlayerStatistics statistics = new PlayerStatistics();
+        
+        for (Map.Entry<String, DatabaseManager.StatisticEntry> entry : entries.entrySet()) {
+            statistics.add(entry.getKey(), entry.getValue().getTimesMined(), entry.getValue().getAmountEarned());
+        }
+        
+        return statistics;
+    }
+    
+    /**
+     * Add a mined ore
+     * @param oreName The ore name
+     * @param amount The amount earned
+     */
+    public synchronized void record(String oreName, double amount) {
+        add(oreName, 1, amount);
+    }
+    
+    /**
+     * Add an ore mined several times at once
+     * @param oreName The ore name
+     * @param timesMined The number of ores mined
+     * @param amount The amount earned
+     */
+    public synchronized void record(String oreName, int timesMined, double amount) {
+        add(oreName, timesMined, amount);
+    }
+    
+    /**
+     * Add to an ore's counters and update the totals
+     * @param oreName The ore name
+     * @param timesMined The number of ores mined
+     * @param amount The amount earned
+     */
+    private void add(String oreName, int timesMined, double amount) {
+        MutableEntry entry = ores.computeIfAbsent(oreName, key -> new MutableEntry());
+        entry.timesMined += timesMined;
+        entry.amountEarned += amount;
+        
+        totalMined += timesMined;
+        totalEarned += amount;
+        
+        if (entry.timesMined > mostMinedCount) {
+            mostMinedCount = entry.timesMined;
+            mostMinedOre = oreName;
+        }
+    }
+    
+    /**
+     * Get the total amount earned
+     * @return The total amount earned
+     */
+    public synchronized double getTotalEarned() {
+        return totalEarned;
+    }
+    
+    /**
+     * Get the total number of ores mined
+     * @return The total number of ores mined
+     */
+    public synchronized int getTotalMined() {
+        return totalMined;
+    }
+    
+    /**
+     * Get the most mined ore
+     * @return The name of the most mined ore, or "None"
+     */
+    public synchronized String getMostMinedOre() {
+        return mostMinedOre;
+    }
+    
+    /**
+     * Copy the totals
+     * @return The total earned, total mined and most mined ore, read together
+     */
+    public synchronized PlayerTotals toTotals() {
+        return new PlayerTotals(totalEarned, totalMined, mostMinedOre);
+    }
+    
+    /**
+     * Get the number of times an ore was mined
+     * @param oreName The ore name
+     * @return The number of times the ore was mined
+     */
+    public synchronized int getOreMinedCount(String oreName) {
+        MutableEntry entry = ores.get(oreName);
+        return entry != null ? entry.timesMined : 0;
+    }
+    
+    /**
+     * Get the amount earned from an ore
+     * @param oreName The ore name
+     * @return The amount earned
+     */
+    public synchronized double getOreEarnedAmount(String oreName) {
+        MutableEntry entry = ores.get(oreName);
+        return entry != null ? entry.amountEarned : 0.0;
+    }
+    
+    /**
+     * Copy the per-ore statistics
+     * @return Map of ore names to StatisticEntry objects
+     */
+    public synchronized Map<String, DatabaseManager.StatisticEntry> toEntries() {
+        Map<String, DatabaseManager.StatisticEntry> entries = new HashMap<>();
+        
+        for (Map.Entry<String, MutableEntry> entry : ores.entrySet()) {
+            entries.put(entry.getKey(), new DatabaseManager.StatisticEntry(entry.getValue().timesMined, entry.getValue().amountEarned));
+        }
+        
+        return entries;
+    }
+    
+    /**
+     * Mutable counters for a single ore
+     */
+    private static final class MutableEntry {
+        private int timesMined;
+        private double amountEarned;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,51 @@
+package com.orepay.data;
+
+/**
+ * A snapshot of a player's overall mining totals
+ */
+public final class PlayerTotals {
+    
+    private static final PlayerTotals EMPTY = new PlayerTotals(0.0, 0, "None");
+    
+    private final double totalEarned;
+    private final int totalMined;
+    private final String mostMinedOre;
+    
+    public PlayerTotals(double totalEarned, int totalMined, String mostMinedOre) {
+        this.totalEarned = totalEarned;
+        this.totalMined = totalMined;
+        this.mostMinedOre = mostMinedOre;
+    }
+    
+    /**
+     * Get the totals of a player who hasn't mined anything
+     * @return Zero totals
+     */
+    public static PlayerTotals empty() {
+        return EMPTY;
+    }
+    
+    /**
+     * Get the total amount earned
+     * @return The total amount earned
+     */
+    public double getTotalEarned() {
+        return totalEarned;
+    }
+    
+    /**
+     * Get the total number of ores mined
+     * @return The total number of ores mined
+     */
+    public int getTotalMined() {
+        return totalMined;
+    }
+    
+    /**
+     * Get the most mined ore
+     * @return The name of the most mined ore, or "None"
+     */
+    public String getMostMinedOre() {
+        return mostMinedOre;
+    }
+}
\ No newline at end of file
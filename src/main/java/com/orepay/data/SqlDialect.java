@@ -0,0 +1,122 @@
+package com.orepay.data;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * SQL syntax that differs between the supported databases
+ */
+public enum SqlDialect {
+    SQLITE,
+    MYSQL;
+    
+    /**
+     * Parse a dialect from the storage type setting
+     * @param type The database type
+     * @return The dialect, or SQLITE if the type is unknown
+     */
+    public static SqlDialect fromConfig(String type) {
+        return "mysql".equalsIgnoreCase(type) ? MYSQL : SQLITE;
+    }
+    
+    /**
+     * Get the column definition for an auto-incrementing integer primary key
+     * @param mysqlType The integer type to use on MySQL, e.g. "INT"
+     * @return The column definition
+     */
+    public String autoIncrementKey(String mysqlType) {
+        // In SQLite an INTEGER PRIMARY KEY is the rowid and is assigned automatically
+        return this == MYSQL ? mysqlType + " AUTO_INCREMENT PRIMARY KEY" : "INTEGER PRIMARY KEY";
+    }
+    
+    /**
+     * Get the options that follow a clustered table definition
+     * @return " WITHOUT ROWID" for SQLite, so the primary key stores the rows, or an empty string
+     */
+    public String clusteredTableOptions() {
+        return this == MYSQL ? "" : " WITHOUT ROWID";
+    }
+    
+    /**
+     * Get the start of an insert that skips rows with an existing key
+     * @return The statement start, followed by the table name
+     */
+    public String insertIgnore() {
+        return this == MYSQL ? "INSERT IGNORE INTO" : "INSERT OR IGNORE INTO";
+    }
+    
+    /**
+     * Get the clause that turns an insert into an upsert adding the inserted values to the existing row
+     * @param keyColumns The unique key columns, e.g. "player_id, ore_id"
+     * @param columns The columns to add up
+     * @return The upsert clause
+     */
+    public String onConflictAdd(String keyColumns, String... columns) {
+        StringBuilder clause = new StringBuilder(onConflict(keyColumns));
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) {
+                clause.append(", ");
+            }
+            clause.append(columns[i]).append(" = ").append(columns[i]).append(" + ").append(insertedValue(columns[i]));
+        }
+        return clause.toString();
+    }
+    
+    /**
+     * Get the clause that turns an insert into an upsert replacing the existing values
+     * @param keyColumns The unique key columns, e.g. "uuid"
+     * @param columns The columns to replace
+     * @return The upsert clause
+     */
+    public String onConflictReplace(String keyColumns, String... columns) {
+        StringBuilder clause = new StringBuilder(onConflict(keyColumns));
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) {
+                clause.append(", ");
+            }
+            clause.append(columns[i]).append(" = ").append(insertedValue(columns[i]));
+        }
+        return clause.toString();
+    }
+    
+    /**
+     * Get the start of an upsert clause
+     * @param keyColumns The unique key columns
+     * @return The clause start, followed by the column assignments
+     */
+    public String onConflict(String keyColumns) {
+        return this == MYSQL ? " ON DUPLICATE KEY UPDATE " : " ON CONFLICT(" + keyColumns + ") DO UPDATE SET ";
+    }
+    
+    /**
+     * Get the expression for the value an upsert tried to insert
+     * @param column The column
+     * @return The expression
+     */
+    public String insertedValue(String column) {
+        return this == MYSQL ? "VALUES(" + column + ")" : "excluded." + column;
+    }
+    
+    /**
+     * Create an index if it doesn't exist
+     * @param statement The statement to use
+     * @param name The index name
+     * @param definition The table and columns, e.g. "table (a, b)"
+     * @throws SQLException If the index can't be created
+     */
+    public void createIndex(Statement statement, String name, String definition) throws SQLException {
+        if (this != MYSQL) {
+            statement.execute("CREATE INDEX IF NOT EXISTS " + name + " ON " + definition);
+            return;
+        }
+        
+        // MySQL has no IF NOT EXISTS for indexes
+        try {
+            statement.execute("CREATE INDEX " + name + " ON " + definition);
+        } catch (SQLException e) {
+            if (e.getErrorCode() != 1061) { // ER_DUP_KEYNAME
+                throw e;
+            }
+        }
+    }
+}
\ No newline at end of file
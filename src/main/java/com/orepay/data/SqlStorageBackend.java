@@ -0,0 +1,976 @@
+package com.orepay.data;
+
+import com.orepay.OrePay;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Stores statistics and settings in a SQL database through a HikariCP pool
+ * Statistic rows are keyed by integer player and ore ids, and per-player totals and history
+ * buckets are written by the same transaction as the statistics
+ * Subclasses configure the pool and writes for their database
+ */
+public abstract class SqlStorageBackend implements StorageBackend {
+    
+    private static final String TOTALS_REBUILD_KEY = "player-totals-rebuild-pending";
+    private static final int LOAD_BATCH_SIZE = 500;
+    
+    protected final OrePay plugin;
+    protected final StorageExecutor storageExecutor;
+    private final SqlDialect dialect;
+    private HikariDataSource dataSource;
+    private StatisticsHistory statisticsHistory;
+    private final Map<UUID, Integer> playerIds = new ConcurrentHashMap<>();
+    private final Map<String, Integer> oreIds = new ConcurrentHashMap<>();
+    
+    protected SqlStorageBackend(OrePay plugin, StorageExecutor storageExecutor, SqlDialect dialect) {
+        this.plugin = plugin;
+        this.storageExecutor = storageExecutor;
+        this.dialect = dialect;
+    }
+    
+    /**
+     * Create the backend for a database type, call open before using it
+     * @param plugin The plugin
+     * @param storageExecutor The executor that runs storage I/O
+     * @param databaseType sqlite or mysql
+     * @return The backend
+     */
+    public static SqlStorageBackend create(OrePay plugin, StorageExecutor storageExecutor, String databaseType) {
+        switch (databaseType) {
+            case "mysql":
+                return new MysqlStorageBackend(plugin, storageExecutor);
+            case "sqlite":
+            default:
+                return new SqliteStorageBackend(plugin, storageExecutor);
+        }
+    }
+    
+    /**
+     * Set the driver, URL and database specific properties of the pool
+     * @param config The pool configuration
+     */
+    protected abstract void configure(HikariConfig config);
+    
+    /**
+     * Called once the pool is open, before the tables are created
+     * @param dataSource The pool
+     * @throws SQLException If the backend can't be prepared
+     */
+    protected void poolStarted(HikariDataSource dataSource) throws SQLException {
+    }
+    
+    /**
+     * Open the connection pool, create the tables and finish pending migrations (blocking)
+     * @return True if the database is ready
+     */
+    public boolean open() {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("OrePay-Pool");
+        configure(config);
+        
+        // Pool sizing and connection lifecycle
+        config.setMaximumPoolSize(Math.max(1, plugin.getConfigManager().getInt("storage.database.pool.maximum-pool-size", 10)));
+        config.setMinimumIdle(Math.max(0, plugin.getConfigManager().getInt("storage.database.pool.minimum-idle", 2)));
+        config.setConnectionTimeout(plugin.getConfigManager().getLong("storage.database.pool.connection-timeout", 5000L));
+        config.setValidationTimeout(plugin.getConfigManager().getLong("storage.database.pool.validation-timeout", 3000L));
+        config.setIdleTimeout(plugin.getConfigManager().getLong("storage.database.pool.idle-timeout", 600000L));
+        config.setMaxLifetime(plugin.getConfigManager().getLong("storage.database.pool.max-lifetime", 1800000L));
+        config.setKeepaliveTime(plugin.getConfigManager().getLong("storage.database.pool.keepalive-time", 0L));
+        
+        try {
+            dataSource = new HikariDataSource(config);
+            poolStarted(dataSource);
+            
+            // Create tables if they don't exist
+            write(connection -> {
+                createTables(connection);
+                return null;
+            });
+            
+            // Move statistics from the old text-keyed table, continuing where an earlier run stopped
+            new LegacyStatisticsMigration(plugin, this).run();
+            
+            // Finish a totals rebuild requested by the steps above or interrupted by a restart
+            if (isTotalsRebuildPending()) {
+                rebuildPlayerTotalsSync();
+            }
+            
+            if (plugin.getConfigManager().getBoolean("statistics.history.enabled", true)) {
+                statisticsHistory = new StatisticsHistory(plugin, this);
+            }
+            plugin.getLogger().info("Database connection pool established!");
+            return true;
+        } catch (RuntimeException | SQLException e) {
+            plugin.getLogger().severe("Error setting up database connection: " + e.getMessage());
+            closePool();
+            return false;
+        }
+    }
+    
+    /**
+     * Stop history compaction and close the connection pool
+     * Call after the storage executor has finished its queued writes
+     */
+    @Override
+    public void close() {
+        if (statisticsHistory != null) {
+            statisticsHistory.close();
+            statisticsHistory = null;
+        }
+        
+        closePool();
+    }
+    
+    /**
+     * Close the connection pool
+     */
+    protected void closePool() {
+        if (dataSource != null) {
+            dataSource.close();
+            dataSource = null;
+        }
+    }
+    
+    /**
+     * Rows are written as soon as they are applied, there is nothing to save
+     */
+    @Override
+    public void save() {
+    }
+    
+    /**
+     * Run database work that writes, on a pooled connection unless the backend has a dedicated writer
+     * @param work The work
+     * @param <T> The result type
+     * @return The result of the work
+     * @throws SQLException If the work fails
+     */
+    <T> T write(SqlWork<T> work) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            return work.run(connection);
+        }
+    }
+    
+    /**
+     * Run database work on the storage executor
+     * @param work The work, given a pooled connection
+     * @param <T> The result type
+     * @return CompletableFuture with the result, failed with the SQLException if the work fails
+     */
+    private <T> CompletableFuture<T> supplyRead(SqlWork<T> work) {
+        return storageExecutor.supply(() -> {
+            try (Connection connection = dataSource.getConnection()) {
+                return work.run(connection);
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+    
+    /**
+     * Run database work that writes on the storage executor
+     * @param work The work
+     * @param <T> The result type
+     * @return CompletableFuture with the result, failed with the SQLException if the work fails
+     */
+    private <T> CompletableFuture<T> supplyWrite(SqlWork<T> work) {
+        return storageExecutor.supply(() -> {
+            try {
+                return write(work);
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+    
+    /**
+     * Get the executor that runs storage I/O
+     * @return The storage executor
+     */
+    StorageExecutor getStorageExecutor() {
+        return storageExecutor;
+    }
+    
+    /**
+     * Get the statistics history, if it is recorded
+     * @return The history, or null if history is disabled
+     */
+    public StatisticsHistory getHistory() {
+        return statisticsHistory;
+    }
+    
+    @Override
+    public void unloadPlayer(UUID uuid) {
+        playerIds.remove(uuid);
+    }
+    
+    @Override
+    public CompletableFuture<Map<UUID, StoredPlayer>> loadPlayers(Collection<UUID> uuids) {
+        List<UUID> players = new ArrayList<>(uuids);
+        
+        return supplyRead(connection -> {
+            Map<UUID, Map<String, DatabaseManager.StatisticEntry>> statistics = new HashMap<>();
+            Map<UUID, Boolean> settings = new HashMap<>();
+            
+            // One query per table for each batch of players
+            for (int from = 0; from < players.size(); from += LOAD_BATCH_SIZE) {
+                List<UUID> batch = players.subList(from, Math.min(players.size(), from + LOAD_BATCH_SIZE));
+                String placeholders = String.join(", ", Collections.nCopies(batch.size(), "?"));
+                
+                try (PreparedStatement statement = connection.prepareStatement(
+                        "SELECT p.uuid, o.name AS ore, s.times_mined, s.amount_earned FROM orepay_player_stats s "
+                        + "JOIN orepay_players p ON p.id = s.player_id "
+                        + "JOIN orepay_ores o ON o.id = s.ore_id "
+                        + "WHERE p.uuid IN (" + placeholders + ")")) {
+                    setUuids(statement, batch);
+                    
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        while (resultSet.next()) {
+                            statistics.computeIfAbsent(UUID.fromString(resultSet.getString("uuid")), key -> new HashMap<>())
+                                    .put(resultSet.getString("ore"), new DatabaseManager.StatisticEntry(
+                                            resultSet.getInt("times_mined"), resultSet.getDouble("amount_earned")));
+                        }
+                    }
+                }
+                
+                try (PreparedStatement statement = connection.prepareStatement(
+                        "SELECT uuid, rewards_enabled FROM orepay_settings WHERE uuid IN (" + placeholders + ")")) {
+                    setUuids(statement, batch);
+                    
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        while (resultSet.next()) {
+                            settings.put(UUID.fromString(resultSet.getString("uuid")), resultSet.getBoolean("rewards_enabled"));
+                        }
+                    }
+                }
+            }
+            
+            Map<UUID, StoredPlayer> result = new HashMap<>();
+            for (UUID uuid : players) {
+                result.put(uuid, new StoredPlayer(statistics.getOrDefault(uuid, new HashMap<>()), settings.getOrDefault(uuid, true)));
+            }
+            return result;
+        });
+    }
+    
+    /**
+     * Read totals from orepay_player_totals instead of summing the per-ore rows
+     * @param uuids The player UUIDs
+     * @return CompletableFuture with an entry for every requested player
+     */
+    @Override
+    public CompletableFuture<Map<UUID, PlayerTotals>> loadTotals(Collection<UUID> uuids) {
+        List<UUID> players = new ArrayList<>(uuids);
+        
+        return supplyRead(connection -> {
+            Map<UUID, PlayerTotals> totals = new HashMap<>();
+            
+            for (int from = 0; from < players.size(); from += LOAD_BATCH_SIZE) {
+                List<UUID> batch = players.subList(from, Math.min(players.size(), from + LOAD_BATCH_SIZE));
+                
+                try (PreparedStatement statement = connection.prepareStatement(
+                        "SELECT p.uuid, t.total_earned, t.total_mined, o.name AS ore FROM orepay_player_totals t "
+                        + "JOIN orepay_players p ON p.id = t.player_id "
+                        + "LEFT JOIN orepay_ores o ON o.id = t.most_mined_ore_id "
+                        + "WHERE p.uuid IN (" + String.join(", ", Collections.nCopies(batch.size(), "?")) + ")")) {
+                    setUuids(statement, batch);
+                    
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        while (resultSet.next()) {
+                            String ore = resultSet.getString("ore");
+                            totals.put(UUID.fromString(resultSet.getString("uuid")), new PlayerTotals(
+                                    resultSet.getDouble("total_earned"), resultSet.getInt("total_mined"), ore != null ? ore : "None"));
+                        }
+                    }
+                }
+            }
+            
+            for (UUID uuid : players) {
+                totals.putIfAbsent(uuid, PlayerTotals.empty());
+            }
+            return totals;
+        });
+    }
+    
+    @Override
+    public CompletableFuture<Map<UUID, Boolean>> loadSettings(Collection<UUID> uuids) {
+        List<UUID> players = new ArrayList<>(uuids);
+        
+        return supplyRead(connection -> {
+            Map<UUID, Boolean> settings = new HashMap<>();
+            
+            for (int from = 0; from < players.size(); from += LOAD_BATCH_SIZE) {
+                List<UUID> batch = players.subList(from, Math.min(players.size(), from + LOAD_BATCH_SIZE));
+                
+                try (PreparedStatement statement = connection.prepareStatement(
+                        "SELECT uuid, rewards_enabled FROM orepay_settings WHERE uuid IN ("
+                        + String.join(", ", Collections.nCopies(batch.size(), "?")) + ")")) {
+                    setUuids(statement, batch);
+                    
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        while (resultSet.next()) {
+                            settings.put(UUID.fromString(resultSet.getString("uuid")), resultSet.getBoolean("rewards_enabled"));
+                        }
+                    }
+                }
+            }
+            
+            for (UUID uuid : players) {
+                settings.putIfAbsent(uuid, true);
+            }
+            return settings;
+        });
+    }
+    
+    /**
+     * Bind player UUIDs to the parameters of a statement, starting at the first
+     * @param statement The statement
+     * @param uuids The player UUIDs
+     * @throws SQLException If a parameter can't be set
+     */
+    private void setUuids(PreparedStatement statement, List<UUID> uuids) throws SQLException {
+        for (int i = 0; i < uuids.size(); i++) {
+            statement.setString(i + 1, uuids.get(i).toString());
+        }
+    }
+    
+    @Override
+    public CompletableFuture<Set<UUID>> loadPlayerIds() {
+        return supplyRead(connection -> {
+            Set<UUID> players = new HashSet<>();
+            
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "SELECT uuid FROM orepay_players UNION SELECT uuid FROM orepay_settings");
+                 ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    try {
+                        players.add(UUID.fromString(resultSet.getString("uuid")));
+                    } catch (IllegalArgumentException e) {
+                        plugin.getLogger().warning("Invalid UUID in database: " + resultSet.getString("uuid"));
+                    }
+                }
+            }
+            
+            return players;
+        });
+    }
+    
+    @Override
+    public CompletableFuture<Void> applyDeltas(List<StatisticDelta> deltas) {
+        return supplyWrite(connection -> {
+            writeStatisticDeltas(connection, deltas);
+            return null;
+        });
+    }
+    
+    @Override
+    public CompletableFuture<Void> setRewardsEnabled(UUID uuid, boolean enabled) {
+        String sql = "INSERT INTO orepay_settings (uuid, rewards_enabled) VALUES (?, ?)"
+                + dialect.onConflictReplace("uuid", "rewards_enabled");
+        
+        return supplyWrite(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setString(1, uuid.toString());
+                statement.setBoolean(2, enabled);
+                statement.executeUpdate();
+            }
+            return null;
+        });
+    }
+    
+    @Override
+    public CompletableFuture<Map<UUID, Double>> loadTopEarned(int limit) {
+        return supplyRead(connection -> queryTop(connection, "SELECT p.uuid, t.total_earned AS total FROM orepay_player_totals t "
+                + "JOIN orepay_players p ON p.id = t.player_id "
+                + "ORDER BY t.total_earned DESC LIMIT ?", null, limit));
+    }
+    
+    @Override
+    public CompletableFuture<Map<UUID, Double>> loadTopMined(int limit) {
+        return supplyRead(connection -> queryTop(connection, "SELECT p.uuid, t.total_mined AS total FROM orepay_player_totals t "
+                + "JOIN orepay_players p ON p.id = t.player_id "
+                + "ORDER BY t.total_mined DESC LIMIT ?", null, limit));
+    }
+    
+    @Override
+    public CompletableFuture<Map<UUID, Double>> loadTopOreMined(String oreName, int limit) {
+        return supplyRead(connection -> queryTop(connection, "SELECT p.uuid, s.times_mined AS total FROM orepay_player_stats s "
+                + "JOIN orepay_players p ON p.id = s.player_id "
+                + "JOIN orepay_ores o ON o.id = s.ore_id "
+                + "WHERE o.name = ? ORDER BY s.times_mined DESC LIMIT ?", oreName, limit));
+    }
+    
+    /**
+     * Create the necessary database tables
+     * @param connection The connection to use
+     */
+    private void createTables(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            // Plugin bookkeeping, e.g. migration progress
+            statement.execute("CREATE TABLE IF NOT EXISTS orepay_meta ("
+                    + "meta_key VARCHAR(64) PRIMARY KEY, "
+                    + "meta_value VARCHAR(255) NOT NULL"
+                    + ")");
+            
+            // Player settings table
+            statement.execute("CREATE TABLE IF NOT EXISTS orepay_settings ("
+                    + "uuid VARCHAR(36) PRIMARY KEY, "
+                    + "rewards_enabled BOOLEAN DEFAULT TRUE"
+                    + ")");
+            
+            // Player and ore dictionaries, so statistic rows hold small integer keys
+            statement.execute("CREATE TABLE IF NOT EXISTS orepay_players ("
+                    + "id " + dialect.autoIncrementKey("INT") + ", "
+                    + "uuid VARCHAR(36) NOT NULL UNIQUE"
+                    + ")");
+            
+            statement.execute("CREATE TABLE IF NOT EXISTS orepay_ores ("
+                    + "id " + dialect.autoIncrementKey("SMALLINT") + ", "
+                    + "name VARCHAR(50) NOT NULL UNIQUE"
+                    + ")");
+            
+            // Mining statistics table, clustered on the primary key so per-player queries are covered by it
+            statement.execute("CREATE TABLE IF NOT EXISTS orepay_player_stats ("
+                    + "player_id INT NOT NULL, "
+                    + "ore_id SMALLINT NOT NULL, "
+                    + "times_mined INTEGER NOT NULL DEFAULT 0, "
+                    + "amount_earned DOUBLE NOT NULL DEFAULT 0.0, "
+                    + "PRIMARY KEY (player_id, ore_id)"
+                    + ")" + dialect.clusteredTableOptions());
+            
+            // Per-ore leaderboards are seeded with an ordered scan of this index
+            dialect.createIndex(statement, "idx_orepay_player_stats_ore", "orepay_player_stats (ore_id, times_mined)");
+            
+            // Per-player totals, kept up to date by the same transactions that write orepay_player_stats
+            boolean totalsExisted = tableExists(connection, "orepay_player_totals");
+            statement.execute("CREATE TABLE IF NOT EXISTS orepay_player_totals ("
+                    + "player_id INT PRIMARY KEY, "
+                    + "total_earned DOUBLE NOT NULL DEFAULT 0.0, "
+                    + "total_mined INTEGER NOT NULL DEFAULT 0, "
+                    + "most_mined_ore_id SMALLINT, "
+                    + "most_mined_count INTEGER NOT NULL DEFAULT 0"
+                    + ")");
+            dialect.createIndex(statement, "idx_orepay_player_totals_earned", "orepay_player_totals (total_earned)");
+            dialect.createIndex(statement, "idx_orepay_player_totals_mined", "orepay_player_totals (total_mined)");
+            
+            // Per-player, per-ore history buckets, a player's range of buckets is stored together
+            statement.execute("CREATE TABLE IF NOT EXISTS orepay_stat_buckets ("
+                    + "player_id INT NOT NULL, "
+                    + "bucket_start BIGINT NOT NULL, "
+                    + "resolution SMALLINT NOT NULL, "
+                    + "ore_id SMALLINT NOT NULL, "
+                    + "times_mined INTEGER NOT NULL DEFAULT 0, "
+                    + "amount_earned DOUBLE NOT NULL DEFAULT 0.0, "
+                    + "PRIMARY KEY (player_id, bucket_start, resolution, ore_id)"
+                    + ")" + dialect.clusteredTableOptions());
+            
+            // Compaction scans aged buckets of one resolution
+            dialect.createIndex(statement, "idx_orepay_stat_buckets_age", "orepay_stat_buckets (resolution, bucket_start)");
+            
+            // Existing statistics have no totals yet
+            if (!totalsExisted) {
+                requestTotalsRebuild(connection);
+            }
+        }
+    }
+    
+    /**
+     * Check if a table exists in the current database
+     * @param connection The connection to use
+     * @param table The table name
+     * @return True if the table exists
+     * @throws SQLException If the metadata can't be read
+     */
+    boolean tableExists(Connection connection, String table) throws SQLException {
+        try (ResultSet resultSet = connection.getMetaData().getTables(connection.getCatalog(), null, table, new String[]{"TABLE"})) {
+            return resultSet.next();
+        }
+    }
+    
+    /**
+     * Read a value from orepay_meta
+     * @param connection The connection to use
+     * @param key The key
+     * @param defaultValue The value to return if the key isn't set
+     * @return The value
+     * @throws SQLException If the value can't be read
+     */
+    String getMeta(Connection connection, String key, String defaultValue) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT meta_value FROM orepay_meta WHERE meta_key = ?")) {
+            statement.setString(1, key);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() ? resultSet.getString(1) : defaultValue;
+            }
+        }
+    }
+    
+    /**
+     * Write a value to orepay_meta
+     * @param connection The connection to use
+     * @param key The key
+     * @param value The value
+     * @throws SQLException If the value can't be written
+     */
+    void setMeta(Connection connection, String key, String value) throws SQLException {
+        deleteMeta(connection, key);
+        try (PreparedStatement statement = connection.prepareStatement("INSERT INTO orepay_meta (meta_key, meta_value) VALUES (?, ?)")) {
+            statement.setString(1, key);
+            statement.setString(2, value);
+            statement.executeUpdate();
+        }
+    }
+    
+    /**
+     * Remove a value from orepay_meta
+     * @param connection The connection to use
+     * @param key The key
+     * @throws SQLException If the value can't be removed
+     */
+    void deleteMeta(Connection connection, String key) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("DELETE FROM orepay_meta WHERE meta_key = ?")) {
+            statement.setString(1, key);
+            statement.executeUpdate();
+        }
+    }
+    
+    /**
+     * Get the SQL dialect of the database
+     * @return The dialect
+     */
+    SqlDialect getDialect() {
+        return dialect;
+    }
+    
+    /**
+     * Get a connection from the pool
+     * @return A connection, to be closed by the caller
+     * @throws SQLException If no connection is available
+     */
+    Connection getConnection() throws SQLException {
+        return dataSource.getConnection();
+    }
+    
+    /**
+     * Get the id of a player, adding the player to orepay_players if needed
+     * Call outside a transaction, the ids are cached
+     * @param connection The connection to use
+     * @param uuid The player UUID
+     * @param cache Known ids, updated with the result
+     * @return The player id
+     * @throws SQLException If the id can't be read or created
+     */
+    int resolvePlayerId(Connection connection, UUID uuid, Map<UUID, Integer> cache) throws SQLException {
+        Integer id = cache.get(uuid);
+        if (id == null) {
+            id = resolveId(connection, "orepay_players", "uuid", uuid.toString());
+            cache.put(uuid, id);
+        }
+        return id;
+    }
+    
+    /**
+     * Get the id of an ore, adding the ore to orepay_ores if needed
+     * Call outside a transaction, the ids are cached
+     * @param connection The connection to use
+     * @param oreName The ore name
+     * @return The ore id
+     * @throws SQLException If the id can't be read or created
+     */
+    int resolveOreId(Connection connection, String oreName) throws SQLException {
+        Integer id = oreIds.get(oreName);
+        if (id == null) {
+            id = resolveId(connection, "orepay_ores", "name", oreName);
+            oreIds.put(oreName, id);
+        }
+        return id;
+    }
+    
+    /**
+     * Look up the id of a dictionary value, inserting the value if it is missing
+     * @param connection The connection to use
+     * @param table The dictionary table
+     * @param column The value column
+     * @param value The value
+     * @return The id
+     * @throws SQLException If the id can't be read or created
+     */
+    private int resolveId(Connection connection, String table, String column, String value) throws SQLException {
+        String select = "SELECT id FROM " + table + " WHERE " + column + " = ?";
+        
+        try (PreparedStatement statement = connection.prepareStatement(select)) {
+            statement.setString(1, value);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (resultSet.next()) {
+                    return resultSet.getInt(1);
+                }
+            }
+        }
+        
+        // Ignore the insert if another connection added the value in the meantime
+        try (PreparedStatement statement = connection.prepareStatement(dialect.insertIgnore() + " " + table + " (" + column + ") VALUES (?)")) {
+            statement.setString(1, value);
+            statement.executeUpdate();
+        }
+        
+        try (PreparedStatement statement = connection.prepareStatement(select)) {
+            statement.setString(1, value);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (resultSet.next()) {
+                    return resultSet.getInt(1);
+                }
+            }
+        }
+        
+        throw new SQLException("Could not create " + table + " entry for " + value);
+    }
+    
+    /**
+     * Get the upsert that adds to a player's statistics for an ore
+     * Parameters: player id, ore id, times mined, amount earned
+     * @return The SQL
+     */
+    String addStatisticsSql() {
+        return "INSERT INTO orepay_player_stats (player_id, ore_id, times_mined, amount_earned) VALUES (?, ?, ?, ?)"
+                + dialect.onConflictAdd("player_id, ore_id", "times_mined", "amount_earned");
+    }
+    
+    /**
+     * Get the upsert that adds to a player's totals
+     * The most mined ore only changes when the new count is higher
+     * Parameters: player id, earned, mined, candidate most mined ore id, its count
+     * @return The SQL
+     */
+    String addTotalsSql() {
+        String newCount = dialect.insertedValue("most_mined_count");
+        
+        return "INSERT INTO orepay_player_totals (player_id, total_earned, total_mined, most_mined_ore_id, most_mined_count) "
+                + "VALUES (?, ?, ?, ?, ?)"
+                + dialect.onConflict("player_id")
+                + "total_earned = total_earned + " + dialect.insertedValue("total_earned") + ", "
+                + "total_mined = total_mined + " + dialect.insertedValue("total_mined") + ", "
+                // Set before most_mined_count, MySQL applies the assignments in order
+                + "most_mined_ore_id = CASE WHEN " + newCount + " > most_mined_count "
+                + "THEN " + dialect.insertedValue("most_mined_ore_id") + " ELSE most_mined_ore_id END, "
+                + "most_mined_count = CASE WHEN " + newCount + " > most_mined_count "
+                + "THEN " + newCount + " ELSE most_mined_count END";
+    }
+    
+    /**
+     * Add a batch of increments to the players' totals, inside the caller's transaction
+     * @param connection The connection, with the per-ore rows already updated
+     * @param deltas The increments
+     * @param deltaPlayerIds The player id of each increment
+     * @param deltaOreIds The ore id of each increment
+     * @throws SQLException If the totals can't be updated
+     */
+    private void updatePlayerTotals(Connection connection, List<StatisticDelta> deltas, int[] deltaPlayerIds, int[] deltaOreIds) throws SQLException {
+        Map<Integer, TotalsDelta> totals = new LinkedHashMap<>();
+        
+        for (int i = 0; i < deltas.size(); i++) {
+            TotalsDelta total = totals.computeIfAbsent(deltaPlayerIds[i], key -> new TotalsDelta());
+            total.earned += deltas.get(i).getAmountEarned();
+            total.mined += deltas.get(i).getTimesMined();
+            total.oreIds.add(deltaOreIds[i]);
+        }
+        
+        // Counts only grow, so the most mined ore can only become one of the ores just written.
+        // Their new counts are read with one query per batch of players instead of one per increment.
+        List<Integer> players = new ArrayList<>(totals.keySet());
+        for (int from = 0; from < players.size(); from += LOAD_BATCH_SIZE) {
+            List<Integer> batch = players.subList(from, Math.min(players.size(), from + LOAD_BATCH_SIZE));
+            Set<Integer> ores = new HashSet<>();
+            for (int playerId : batch) {
+                ores.addAll(totals.get(playerId).oreIds);
+            }
+            
+            try (PreparedStatement count = connection.prepareStatement(
+                    "SELECT player_id, ore_id, times_mined FROM orepay_player_stats "
+                    + "WHERE player_id IN (" + String.join(", ", Collections.nCopies(batch.size(), "?")) + ") "
+                    + "AND ore_id IN (" + String.join(", ", Collections.nCopies(ores.size(), "?")) + ")")) {
+                int index = 1;
+                for (int playerId : batch) {
+                    count.setInt(index++, playerId);
+                }
+                for (int oreId : ores) {
+                    count.setInt(index++, oreId);
+                }
+                
+                try (ResultSet resultSet = count.executeQuery()) {
+                    while (resultSet.next()) {
+                        TotalsDelta total = totals.get(resultSet.getInt("player_id"));
+                        int oreId = resultSet.getInt("ore_id");
+                        int timesMined = resultSet.getInt("times_mined");
+                        
+                        // The query also returns ores other players of the batch touched
+                        if (total.oreIds.contains(oreId) && timesMined > total.mostMinedCount) {
+                            total.mostMinedCount = timesMined;
+                            total.mostMinedOreId = oreId;
+                        }
+                    }
+                }
+            }
+        }
+        
+        try (PreparedStatement statement = connection.prepareStatement(addTotalsSql())) {
+            for (Map.Entry<Integer, TotalsDelta> entry : totals.entrySet()) {
+                statement.setInt(1, entry.getKey());
+                statement.setDouble(2, entry.getValue().earned);
+                statement.setInt(3, entry.getValue().mined);
+                statement.setInt(4, entry.getValue().mostMinedOreId);
+                statement.setInt(5, entry.getValue().mostMinedCount);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+    
+    /**
+     * Check if a totals rebuild was requested and hasn't finished
+     * @return True if orepay_player_totals needs to be rebuilt
+     * @throws SQLException If the flag can't be read
+     */
+    private boolean isTotalsRebuildPending() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            return Boolean.parseBoolean(getMeta(connection, TOTALS_REBUILD_KEY, "false"));
+        }
+    }
+    
+    /**
+     * Mark orepay_player_totals as needing a rebuild, the flag survives restarts
+     * @param connection The connection to use
+     * @throws SQLException If the flag can't be written
+     */
+    void requestTotalsRebuild(Connection connection) throws SQLException {
+        setMeta(connection, TOTALS_REBUILD_KEY, "true");
+    }
+    
+    /**
+     * Recompute orepay_player_totals from the per-ore rows
+     * @return CompletableFuture with the number of players processed, or -1 if the rebuild failed
+     */
+    public CompletableFuture<Integer> rebuildPlayerTotals() {
+        return storageExecutor.supply(() -> {
+            try {
+                return rebuildPlayerTotalsSync();
+            } catch (SQLException e) {
+                plugin.getLogger().severe("Error rebuilding player totals: " + e.getMessage());
+                return -1;
+            }
+        });
+    }
+    
+    /**
+     * Recompute orepay_player_totals from the per-ore rows (blocking)
+     * Players are processed in id order, one batch per transaction
+     * @return The number of players processed
+     * @throws SQLException If a batch fails, earlier batches stay committed and the rebuild stays pending
+     */
+    private int rebuildPlayerTotalsSync() throws SQLException {
+        int batchSize = Math.max(100, plugin.getConfigManager().getInt("storage.database.migration-batch-size", 5000));
+        int processed = 0;
+        
+        write(connection -> {
+            requestTotalsRebuild(connection);
+            return null;
+        });
+        plugin.getLogger().info("Rebuilding player totals...");
+        
+        // Player ids are read on a pooled connection, each batch is rebuilt as one write
+        try (Connection connection = dataSource.getConnection()) {
+            int lastId = 0;
+            while (true) {
+                int firstId = -1;
+                int batchLastId = -1;
+                int players = 0;
+                
+                try (PreparedStatement statement = connection.prepareStatement(
+                        "SELECT id FROM orepay_players WHERE id > ? ORDER BY id LIMIT ?")) {
+                    statement.setInt(1, lastId);
+                    statement.setInt(2, batchSize);
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        while (resultSet.next()) {
+                            if (firstId < 0) {
+                                firstId = resultSet.getInt(1);
+                            }
+                            batchLastId = resultSet.getInt(1);
+                            players++;
+                        }
+                    }
+                }
+                
+                if (players == 0) {
+                    break;
+                }
+                
+                int rangeFirstId = firstId;
+                int rangeLastId = batchLastId;
+                write(writeConnection -> {
+                    rebuildTotalsRange(writeConnection, rangeFirstId, rangeLastId);
+                    return null;
+                });
+                processed += players;
+                lastId = batchLastId;
+            }
+        }
+        
+        write(connection -> {
+            deleteMeta(connection, TOTALS_REBUILD_KEY);
+            return null;
+        });
+        
+        plugin.getLogger().info("Rebuilt totals for " + processed + " players");
+        return processed;
+    }
+    
+    /**
+     * Recompute the totals of a range of player ids in one transaction
+     * @param connection The connection to use
+     * @param firstId The first player id
+     * @param lastId The last player id
+     * @throws SQLException If the range can't be rebuilt, in which case nothing is committed
+     */
+    private void rebuildTotalsRange(Connection connection, int firstId, int lastId) throws SQLException {
+        connection.setAutoCommit(false);
+        
+        try {
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "DELETE FROM orepay_player_totals WHERE player_id BETWEEN ? AND ?")) {
+                statement.setInt(1, firstId);
+                statement.setInt(2, lastId);
+                statement.executeUpdate();
+            }
+            
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "INSERT INTO orepay_player_totals (player_id, total_earned, total_mined, most_mined_count) "
+                    + "SELECT player_id, SUM(amount_earned), SUM(times_mined), MAX(times_mined) FROM orepay_player_stats "
+                    + "WHERE player_id BETWEEN ? AND ? GROUP BY player_id")) {
+                statement.setInt(1, firstId);
+                statement.setInt(2, lastId);
+                statement.executeUpdate();
+            }
+            
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "UPDATE orepay_player_totals SET most_mined_ore_id = ("
+                    + "SELECT s.ore_id FROM orepay_player_stats s WHERE s.player_id = orepay_player_totals.player_id "
+                    + "ORDER BY s.times_mined DESC LIMIT 1"
+                    + ") WHERE player_id BETWEEN ? AND ?")) {
+                statement.setInt(1, firstId);
+                statement.setInt(2, lastId);
+                statement.executeUpdate();
+            }
+            
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+    
+    /**
+     * Write a set of statistic increments in a single transaction
+     * @param connection The connection to use
+     * @param deltas The increments to write
+     * @throws SQLException If the batch fails, in which case nothing is committed
+     */
+    private void writeStatisticDeltas(Connection connection, List<StatisticDelta> deltas) throws SQLException {
+        // Resolve ids before the transaction, so a rollback can't leave cached ids without a row
+        int[] deltaPlayerIds = new int[deltas.size()];
+        int[] deltaOreIds = new int[deltas.size()];
+        for (int i = 0; i < deltas.size(); i++) {
+            deltaPlayerIds[i] = resolvePlayerId(connection, deltas.get(i).getUuid(), playerIds);
+            deltaOreIds[i] = resolveOreId(connection, deltas.get(i).getOreName());
+        }
+        
+        connection.setAutoCommit(false);
+        
+        try (PreparedStatement statement = connection.prepareStatement(addStatisticsSql())) {
+            for (int i = 0; i < deltas.size(); i++) {
+                StatisticDelta delta = deltas.get(i);
+                statement.setInt(1, deltaPlayerIds[i]);
+                statement.setInt(2, deltaOreIds[i]);
+                statement.setInt(3, delta.getTimesMined());
+                statement.setDouble(4, delta.getAmountEarned());
+                statement.addBatch();
+            }
+            
+            statement.executeBatch();
+            updatePlayerTotals(connection, deltas, deltaPlayerIds, deltaOreIds);
+            
+            if (statisticsHistory != null) {
+                statisticsHistory.writeHourBuckets(connection, deltas, deltaPlayerIds, deltaOreIds);
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+    
+    /**
+     * Run a leaderboard query
+     * @param connection The connection to use
+     * @param sql The query, selecting uuid and total, with an optional ore parameter followed by the limit
+     * @param oreName The ore parameter, or null if the query has none
+     * @param limit The maximum number of rows
+     * @return Map of player UUID to value, in query order
+     * @throws SQLException If the query fails
+     */
+    private Map<UUID, Double> queryTop(Connection connection, String sql, String oreName, int limit) throws SQLException {
+        Map<UUID, Double> top = new LinkedHashMap<>();
+        
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            int index = 1;
+            if (oreName != null) {
+                statement.setString(index++, oreName);
+            }
+            statement.setInt(index, limit);
+            
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    try {
+                        top.put(UUID.fromString(resultSet.getString("uuid")), resultSet.getDouble("total"));
+                    } catch (IllegalArgumentException e) {
+                        plugin.getLogger().warning("Invalid UUID in statistics: " + resultSet.getString("uuid"));
+                    }
+                }
+            }
+        }
+        
+        return top;
+    }
+    
+    /**
+     * Increments to one player's totals within a write
+     */
+    private static final class TotalsDelta {
+        private final Set<Integer> oreIds = new HashSet<>();
+        private double earned;
+        private int mined;
+        private int mostMinedOreId;
+        private int mostMinedCount;
+    }
+}
\ No newline at end of file
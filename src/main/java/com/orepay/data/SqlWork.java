@@ -0,0 +1,20 @@
+package com.orepay.data;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * A unit of database work run with a connection
+ * @param <T> The result type
+ */
+@FunctionalInterface
+interface SqlWork<T> {
+
+    /**
+     * Run the work
+     * @param connection The connection to use, owned by the caller
+     * @return The result
+     * @throws SQLException If the work fails
+     */
+    T run(Connection connection) throws SQLException;
+}
\ No newline at end of file
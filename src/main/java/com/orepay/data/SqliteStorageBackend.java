@@ -0,0 +1,80 @@
+package com.orepay.data;
+
+import com.orepay.OrePay;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+import java.sql.DriverManager;
+import java.sql.SQLException;
+
+/**
+ * SQLite storage in orepay.db
+ * By default all writes run on one thread with a long-lived connection, so writers never
+ * wait on each other's locks and pooled connections only read
+ */
+public class SqliteStorageBackend extends SqlStorageBackend {
+    
+    private SqliteWriter sqliteWriter;
+    
+    public SqliteStorageBackend(OrePay plugin, StorageExecutor storageExecutor) {
+        super(plugin, storageExecutor, SqlDialect.SQLITE);
+    }
+    
+    @Override
+    public String getName() {
+        return "sqlite";
+    }
+    
+    @Override
+    protected void configure(HikariConfig config) {
+        config.setDriverClassName("org.sqlite.JDBC");
+        config.setJdbcUrl("jdbc:sqlite:" + plugin.getDataFolder() + "/orepay.db");
+        // Wait for locks held by other pooled connections instead of failing with SQLITE_BUSY
+        config.addDataSourceProperty("busy_timeout", "5000");
+        
+        // Readers don't block the writer (or each other) in WAL mode, and with synchronous=NORMAL
+        // commits skip the fsync, a power loss can undo the last commits but not corrupt the file
+        if (plugin.getConfigManager().getBoolean("storage.database.sqlite.wal", true)) {
+            config.addDataSourceProperty("journal_mode", "WAL");
+            config.addDataSourceProperty("synchronous", "NORMAL");
+        }
+    }
+    
+    @Override
+    protected void poolStarted(HikariDataSource dataSource) throws SQLException {
+        // Pooled connections only read, writes go through one connection on one thread
+        // The writer's connection is opened outside the pool with the same settings, so it never
+        // takes a pooled connection away from the readers (the pool may hold just one)
+        if (plugin.getConfigManager().getBoolean("storage.database.sqlite.single-writer", true)) {
+            sqliteWriter = new SqliteWriter(plugin,
+                    DriverManager.getConnection(dataSource.getJdbcUrl(), dataSource.getDataSourceProperties()));
+        }
+    }
+    
+    /**
+     * Run database work that writes
+     * With the single writer it runs on the writer thread, otherwise on a pooled connection
+     * @param work The work
+     * @param <T> The result type
+     * @return The result of the work
+     * @throws SQLException If the work fails
+     */
+    @Override
+    <T> T write(SqlWork<T> work) throws SQLException {
+        if (sqliteWriter != null) {
+            return sqliteWriter.execute(work);
+        }
+        
+        return super.write(work);
+    }
+    
+    @Override
+    protected void closePool() {
+        if (sqliteWriter != null) {
+            sqliteWriter.close();
+            sqliteWriter = null;
+        }
+        
+        super.closePool();
+    }
+}
\ No newline at end of file
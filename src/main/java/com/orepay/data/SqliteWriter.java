@@ -0,0 +1,240 @@
+package com.orepay.data;
+
+import com.orepay.OrePay;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs all SQLite writes on one dedicated thread with one long-lived connection
+ * SQLite allows a single writer at a time, so pooled writers only wait on each other's locks.
+ * The connection keeps the most recently used prepared statements open:
+ * closing a statement obtained from it only clears its parameters and batch
+ */
+class SqliteWriter {
+    
+    private static final int MAX_CACHED_STATEMENTS = 32;
+    
+    private final OrePay plugin;
+    private final Connection connection;
+    private final Connection cachingConnection;
+    private final Map<String, CachedStatement> statements = new LinkedHashMap<String, CachedStatement>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedStatement> eldest) {
+            if (size() > MAX_CACHED_STATEMENTS) {
+                evictUnused();
+            }
+            return false;
+        }
+    };
+    private final ExecutorService executor;
+    private volatile Thread writerThread;
+    
+    /**
+     * Create a writer
+     * @param plugin The plugin
+     * @param connection The connection to write with, kept open until the writer is closed
+     */
+    SqliteWriter(OrePay plugin, Connection connection) {
+        this.plugin = plugin;
+        this.connection = connection;
+        this.cachingConnection = (Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{Connection.class}, new CachingConnectionHandler());
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "OrePay-SQLite-Writer");
+            thread.setDaemon(true);
+            writerThread = thread;
+            return thread;
+        });
+    }
+    
+    /**
+     * Run work on the writer thread and wait for it
+     * Work submitted from the writer thread itself runs directly
+     * @param work The work, the connection passed to it must not leave the writer thread
+     * @param <T> The result type
+     * @return The result of the work
+     * @throws SQLException If the work fails
+     */
+    <T> T execute(SqlWork<T> work) throws SQLException {
+        if (Thread.currentThread() == writerThread) {
+            return work.run(cachingConnection);
+        }
+        
+        Future<T> result = executor.submit(() -> work.run(cachingConnection));
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for the SQLite writer", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SQLException) {
+                throw (SQLException) e.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new SQLException(e.getCause());
+        }
+    }
+    
+    /**
+     * Finish queued writes, then close the cached statements and the connection
+     */
+    void close() {
+        executor.submit(() -> {
+            for (CachedStatement cached : statements.values()) {
+                closeQuietly(cached.statement);
+            }
+            statements.clear();
+            
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                plugin.getLogger().severe("Error closing SQLite writer connection: " + e.getMessage());
+            }
+        });
+        executor.shutdown();
+        
+        try {
+            if (!executor.awaitTermination(10L, TimeUnit.SECONDS)) {
+                plugin.getLogger().warning("SQLite writer did not finish in time");
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    /**
+     * Close the least recently used statement that isn't currently handed out
+     * Statements in use are kept even if the cache goes over its size for a while
+     */
+    private void evictUnused() {
+        Iterator<CachedStatement> iterator = statements.values().iterator();
+        while (iterator.hasNext()) {
+            CachedStatement cached = iterator.next();
+            if (cached.handler.open == 0) {
+                iterator.remove();
+                closeQuietly(cached.statement);
+                return;
+            }
+        }
+    }
+    
+    /**
+     * Close a statement, ignoring errors
+     * @param statement The statement
+     */
+    private static void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            // Closing anyway
+        }
+    }
+    
+    /**
+     * Invoke a method on the real object, unwrapping the reflection exception
+     * @param target The real object
+     * @param method The method
+     * @param args The arguments
+     * @return The result
+     * @throws Throwable The exception thrown by the method
+     */
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+    
+    /**
+     * Connection view that hands out cached statements and ignores close
+     */
+    private final class CachingConnectionHandler implements InvocationHandler {
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    return null;
+                case "isClosed":
+                    return connection.isClosed();
+                case "prepareStatement":
+                    if (args.length == 1) {
+                        CachedStatement cached = statements.get((String) args[0]);
+                        if (cached == null) {
+                            cached = new CachedStatement(connection.prepareStatement((String) args[0]));
+                            statements.put((String) args[0], cached);
+                        }
+                        cached.handler.open++;
+                        return cached.proxy;
+                    }
+                    return SqliteWriter.invoke(connection, method, args);
+                default:
+                    return SqliteWriter.invoke(connection, method, args);
+            }
+        }
+    }
+    
+    /**
+     * A cached statement with the view handed out for it
+     */
+    private static final class CachedStatement {
+        private final PreparedStatement statement;
+        private final CachedStatementHandler handler;
+        private final PreparedStatement proxy;
+        
+        private CachedStatement(PreparedStatement statement) {
+            this.statement = statement;
+            this.handler = new CachedStatementHandler(statement);
+            this.proxy = (PreparedStatement) Proxy.newProxyInstance(SqliteWriter.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, handler);
+        }
+    }
+    
+    /**
+     * Statement view that resets the cached statement instead of closing it
+     * Counts how many times it is handed out and not yet closed, so statements in use aren't evicted
+     */
+    private static final class CachedStatementHandler implements InvocationHandler {
+        private final PreparedStatement statement;
+        private int open;
+        
+        private CachedStatementHandler(PreparedStatement statement) {
+            this.statement = statement;
+        }
+        
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (open > 0) {
+                        open--;
+                    }
+                    statement.clearBatch();
+                    statement.clearParameters();
+                    return null;
+                case "isClosed":
+                    return false;
+                default:
+                    return SqliteWriter.invoke(statement, method, args);
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,63 @@
+package com.orepay.data;
+
+import java.util.UUID;
+
+/**
+ * An accumulated change to a player's statistics for a single ore
+ */
+public class StatisticDelta {
+    
+    private final UUID uuid;
+    private final String oreName;
+    private final long hourStart;
+    private final int timesMined;
+    private final double amountEarned;
+    
+    public StatisticDelta(UUID uuid, String oreName, long hourStart, int timesMined, double amountEarned) {
+        this.uuid = uuid;
+        this.oreName = oreName;
+        this.hourStart = hourStart;
+        this.timesMined = timesMined;
+        this.amountEarned = amountEarned;
+    }
+    
+    /**
+     * Get the player UUID
+     * @return The player UUID
+     */
+    public UUID getUuid() {
+        return uuid;
+    }
+    
+    /**
+     * Get the ore name
+     * @return The ore name
+     */
+    public String getOreName() {
+        return oreName;
+    }
+    
+    /**
+     * Get the start of the hour the ores were mined in
+     * @return The hour start in epoch seconds
+     */
+    public long getHourStart() {
+        return hourStart;
+    }
+    
+    /**
+     * Get the number of ores mined in this delta
+     * @return The number of ores mined
+     */
+    public int getTimesMined() {
+        return timesMined;
+    }
+    
+    /**
+     * Get the amount earned in this delta
+     * @return The amount earned
+     */
+    public double getAmountEarned() {
+        return amountEarned;
+    }
+}
\ No newline at end of file
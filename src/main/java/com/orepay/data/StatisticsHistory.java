@@ -0,0 +1,320 @@
+package com.orepay.data;
+
+import com.orepay.OrePay;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Time-bucketed mining statistics stored in orepay_stat_buckets
+ * Writes go to hourly buckets, and a periodic compaction rolls old hours into days,
+ * old days into months and drops months past the retention, so each player and ore
+ * keeps a bounded number of rows
+ */
+public class StatisticsHistory {
+    
+    private static final int COMPACTION_BATCH_SIZE = 1000;
+    
+    private final OrePay plugin;
+    private final SqlStorageBackend backend;
+    private final ZoneId zone = ZoneId.systemDefault();
+    private final int hourlyRetentionHours;
+    private final int dailyRetentionDays;
+    private final int monthlyRetentionMonths;
+    private final AtomicBoolean compacting = new AtomicBoolean(false);
+    private BukkitTask compactionTask;
+    
+    public StatisticsHistory(OrePay plugin, SqlStorageBackend backend) {
+        this.plugin = plugin;
+        this.backend = backend;
+        
+        // Keep at least a full day of hours and a full month of days so the views stay complete
+        this.hourlyRetentionHours = Math.max(24, plugin.getConfigManager().getInt("statistics.history.hourly-retention-hours", 48));
+        this.dailyRetentionDays = Math.max(31, plugin.getConfigManager().getInt("statistics.history.daily-retention-days", 62));
+        this.monthlyRetentionMonths = Math.max(1, plugin.getConfigManager().getInt("statistics.history.monthly-retention-months", 24));
+        
+        long interval = Math.max(1L, plugin.getConfigManager().getLong("statistics.history.compaction-interval-minutes", 60L)) * 1200L;
+        this.compactionTask = plugin.getServer().getScheduler().runTaskTimer(plugin,
+                () -> backend.getStorageExecutor().execute(this::compact), interval, interval);
+    }
+    
+    /**
+     * Stop the periodic compaction
+     */
+    public void close() {
+        if (compactionTask != null) {
+            compactionTask.cancel();
+            compactionTask = null;
+        }
+    }
+    
+    /**
+     * Get the zone buckets are aligned to
+     * @return The zone
+     */
+    public ZoneId getZone() {
+        return zone;
+    }
+    
+    /**
+     * Get the upsert that adds to a bucket
+     * Parameters: player id, bucket start, resolution, ore id, times mined, amount earned
+     * @return The SQL
+     */
+    private String addBucketSql() {
+        return "INSERT INTO orepay_stat_buckets (player_id, bucket_start, resolution, ore_id, times_mined, amount_earned) "
+                + "VALUES (?, ?, ?, ?, ?, ?)"
+                + backend.getDialect().onConflictAdd("player_id, bucket_start, resolution, ore_id", "times_mined", "amount_earned");
+    }
+    
+    /**
+     * Add a batch of increments to their hourly buckets, inside the caller's transaction
+     * @param connection The connection to use
+     * @param deltas The increments
+     * @param deltaPlayerIds The player id of each increment
+     * @param deltaOreIds The ore id of each increment
+     * @throws SQLException If the buckets can't be updated
+     */
+    void writeHourBuckets(Connection connection, List<StatisticDelta> deltas, int[] deltaPlayerIds, int[] deltaOreIds) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(addBucketSql())) {
+            for (int i = 0; i < deltas.size(); i++) {
+                StatisticDelta delta = deltas.get(i);
+                statement.setInt(1, deltaPlayerIds[i]);
+                statement.setLong(2, delta.getHourStart());
+                statement.setInt(3, BucketResolution.HOUR.getId());
+                statement.setInt(4, deltaOreIds[i]);
+                statement.setInt(5, delta.getTimesMined());
+                statement.setDouble(6, delta.getAmountEarned());
+                statement.addBatch();
+            }
+            
+            statement.executeBatch();
+        }
+    }
+    
+    /**
+     * Read a player's most recent buckets (blocking)
+     * Older data that was already rolled into coarser buckets is counted in the bucket it starts in
+     * @param uuid The player UUID
+     * @param resolution The bucket length
+     * @param count The number of buckets, ending with the current one
+     * @return The buckets, oldest first, including empty ones
+     */
+    public List<HistoryBucket> readHistory(UUID uuid, BucketResolution resolution, int count) {
+        long now = System.currentTimeMillis() / 1000L;
+        long current = resolution.truncate(now, zone);
+        long first = resolution.plus(current, -(count - 1), zone);
+        
+        // One accumulator per bucket, in order
+        Map<Long, Map<String, DatabaseManager.StatisticEntry>> buckets = new LinkedHashMap<>();
+        for (long start = first; start <= current; start = resolution.plus(start, 1, zone)) {
+            buckets.put(start, new HashMap<>());
+        }
+        
+        String sql = "SELECT b.bucket_start, o.name AS ore, b.times_mined, b.amount_earned FROM orepay_stat_buckets b "
+                + "JOIN orepay_players p ON p.id = b.player_id "
+                + "JOIN orepay_ores o ON o.id = b.ore_id "
+                + "WHERE p.uuid = ? AND b.bucket_start >= ? AND b.resolution <= ?";
+        
+        try (Connection connection = backend.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, uuid.toString());
+            statement.setLong(2, first);
+            statement.setInt(3, resolution.getId());
+            
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    Map<String, DatabaseManager.StatisticEntry> ores = buckets.get(resolution.truncate(resultSet.getLong("bucket_start"), zone));
+                    if (ores == null) {
+                        continue;
+                    }
+                    
+                    ores.merge(resultSet.getString("ore"),
+                            new DatabaseManager.StatisticEntry(resultSet.getInt("times_mined"), resultSet.getDouble("amount_earned")),
+                            (a, b) -> new DatabaseManager.StatisticEntry(a.getTimesMined() + b.getTimesMined(),
+                                    a.getAmountEarned() + b.getAmountEarned()));
+                }
+            }
+        } catch (SQLException e) {
+            plugin.getLogger().severe("Error getting statistics history: " + e.getMessage());
+        }
+        
+        List<HistoryBucket> history = new ArrayList<>(buckets.size());
+        for (Map.Entry<Long, Map<String, DatabaseManager.StatisticEntry>> entry : buckets.entrySet()) {
+            history.add(new HistoryBucket(resolution, entry.getKey(), entry.getValue()));
+        }
+        
+        return history;
+    }
+    
+    /**
+     * Roll aged buckets into coarser ones and drop buckets past the retention (blocking)
+     */
+    public void compact() {
+        // Two passes over the same rows would count them twice
+        if (!compacting.compareAndSet(false, true)) {
+            return;
+        }
+        
+        try {
+            compactBuckets();
+        } finally {
+            compacting.set(false);
+        }
+    }
+    
+    /**
+     * Run the compaction steps in order
+     */
+    private void compactBuckets() {
+        long now = System.currentTimeMillis() / 1000L;
+        long hourCutoff = BucketResolution.DAY.truncate(now - hourlyRetentionHours * 3600L, zone);
+        long dayCutoff = BucketResolution.MONTH.truncate(now - dailyRetentionDays * 86400L, zone);
+        long monthCutoff = BucketResolution.MONTH.plus(BucketResolution.MONTH.truncate(now, zone), -monthlyRetentionMonths, zone);
+        
+        try {
+            int rolled = 0;
+            int batch;
+            
+            // Each batch is a separate write, so statistics flushes can run in between
+            while ((batch = backend.write(connection -> rollUpBatch(connection, BucketResolution.HOUR, BucketResolution.DAY, hourCutoff))) > 0) {
+                rolled += batch;
+            }
+            while ((batch = backend.write(connection -> rollUpBatch(connection, BucketResolution.DAY, BucketResolution.MONTH, dayCutoff))) > 0) {
+                rolled += batch;
+            }
+            
+            int dropped = backend.write(connection -> {
+                try (PreparedStatement statement = connection.prepareStatement(
+                        "DELETE FROM orepay_stat_buckets WHERE resolution = ? AND bucket_start < ?")) {
+                    statement.setInt(1, BucketResolution.MONTH.getId());
+                    statement.setLong(2, monthCutoff);
+                    return statement.executeUpdate();
+                }
+            });
+            
+            if (rolled > 0 || dropped > 0) {
+                plugin.getLogger().info("Compacted statistics history: " + rolled + " buckets rolled up, " + dropped + " expired");
+            }
+        } catch (SQLException e) {
+            plugin.getLogger().severe("Error compacting statistics history: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Move one batch of buckets older than a cutoff into coarser buckets, in one transaction
+     * @param connection The connection to use
+     * @param from The resolution of the buckets to move
+     * @param to The resolution to move them to
+     * @param cutoff Buckets starting before this time are moved, aligned to the start of a coarser bucket
+     * @return The number of buckets moved, 0 when none are left
+     * @throws SQLException If the batch fails, in which case nothing is committed
+     */
+    private int rollUpBatch(Connection connection, BucketResolution from, BucketResolution to, long cutoff) throws SQLException {
+        List<long[]> keys = new ArrayList<>();
+        Map<BucketKey, DatabaseManager.StatisticEntry> rolled = new LinkedHashMap<>();
+        
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT player_id, bucket_start, ore_id, times_mined, amount_earned FROM orepay_stat_buckets "
+                + "WHERE resolution = ? AND bucket_start < ? LIMIT ?")) {
+            statement.setInt(1, from.getId());
+            statement.setLong(2, cutoff);
+            statement.setInt(3, COMPACTION_BATCH_SIZE);
+            
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    int playerId = resultSet.getInt("player_id");
+                    long bucketStart = resultSet.getLong("bucket_start");
+                    int oreId = resultSet.getInt("ore_id");
+                    keys.add(new long[]{playerId, bucketStart, oreId});
+                    
+                    rolled.merge(new BucketKey(playerId, to.truncate(bucketStart, zone), oreId),
+                            new DatabaseManager.StatisticEntry(resultSet.getInt("times_mined"), resultSet.getDouble("amount_earned")),
+                            (a, b) -> new DatabaseManager.StatisticEntry(a.getTimesMined() + b.getTimesMined(),
+                                    a.getAmountEarned() + b.getAmountEarned()));
+                }
+            }
+        }
+        
+        if (keys.isEmpty()) {
+            return 0;
+        }
+        
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement(addBucketSql());
+             PreparedStatement delete = connection.prepareStatement(
+                     "DELETE FROM orepay_stat_buckets WHERE player_id = ? AND bucket_start = ? AND resolution = ? AND ore_id = ?")) {
+            for (Map.Entry<BucketKey, DatabaseManager.StatisticEntry> entry : rolled.entrySet()) {
+                insert.setInt(1, entry.getKey().playerId);
+                insert.setLong(2, entry.getKey().bucketStart);
+                insert.setInt(3, to.getId());
+                insert.setInt(4, entry.getKey().oreId);
+                insert.setInt(5, entry.getValue().getTimesMined());
+                insert.setDouble(6, entry.getValue().getAmountEarned());
+                insert.addBatch();
+            }
+            
+            for (long[] key : keys) {
+                delete.setInt(1, (int) key[0]);
+                delete.setLong(2, key[1]);
+                delete.setInt(3, from.getId());
+                delete.setInt(4, (int) key[2]);
+                delete.addBatch();
+            }
+            
+            insert.executeBatch();
+            delete.executeBatch();
+            connection.commit();
+            return keys.size();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+    
+    /**
+     * Key of a rolled-up bucket
+     */
+    private static final class BucketKey {
+        private final int playerId;
+        private final long bucketStart;
+        private final int oreId;
+        
+        private BucketKey(int playerId, long bucketStart, int oreId) {
+            this.playerId = playerId;
+            this.bucketStart = bucketStart;
+            this.oreId = oreId;
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof BucketKey)) {
+                return false;
+            }
+            BucketKey other = (BucketKey) o;
+            return playerId == other.playerId && bucketStart == other.bucketStart && oreId == other.oreId;
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(playerId, bucketStart, oreId);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,267 @@
+package com.orepay.data;
+
+import com.orepay.OrePay;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * Write-behind buffer for mining statistics
+ * Increments are summed per player, ore and hour in memory and handed to the
+ * storage backend periodically as one batch
+ */
+public class StatisticsWriteBuffer {
+    
+    private final OrePay plugin;
+    private final DatabaseManager databaseManager;
+    private final Map<Key, Pending> pending = new ConcurrentHashMap<>();
+    private final AtomicBoolean earlyFlushScheduled = new AtomicBoolean(false);
+    private final ReadWriteLock flushLock = new ReentrantReadWriteLock();
+    private final int maxPending;
+    private final ZoneId zone = ZoneId.systemDefault();
+    private volatile Hour currentHour = new Hour(0L, 0L);
+    private BukkitTask flushTask;
+    
+    public StatisticsWriteBuffer(OrePay plugin, DatabaseManager databaseManager) {
+        this.plugin = plugin;
+        this.databaseManager = databaseManager;
+        this.maxPending = Math.max(1, plugin.getConfigManager().getInt("statistics.write-behind.max-pending", 500));
+        
+        long interval = Math.max(1L, plugin.getConfigManager().getLong("statistics.write-behind.flush-interval-ticks", 100L));
+        this.flushTask = plugin.getServer().getScheduler().runTaskTimer(plugin,
+                () -> databaseManager.getStorageExecutor().execute(this::flush), interval, interval);
+    }
+    
+    /**
+     * Add a mined ore to the buffer
+     * @param uuid The player UUID
+     * @param oreName The ore name
+     * @param amount The amount earned
+     */
+    public void record(UUID uuid, String oreName, double amount) {
+        record(uuid, oreName, 1, amount);
+    }
+    
+    /**
+     * Add an ore mined several times at once to the buffer
+     * @param uuid The player UUID
+     * @param oreName The ore name
+     * @param timesMined The number of ores mined
+     * @param amount The amount earned
+     */
+    public void record(UUID uuid, String oreName, int timesMined, double amount) {
+        long hourStart = getHourStart(System.currentTimeMillis() / 1000L);
+        
+        pending.compute(new Key(uuid, oreName, hourStart), (key, entry) -> {
+            if (entry == null) {
+                entry = new Pending();
+            }
+            entry.timesMined += timesMined;
+            entry.amountEarned += amount;
+            return entry;
+        });
+        
+        // Flush early if the buffer grows past the threshold
+        if (pending.size() >= maxPending && earlyFlushScheduled.compareAndSet(false, true)) {
+            databaseManager.getStorageExecutor().execute(() -> {
+                earlyFlushScheduled.set(false);
+                flush();
+            });
+        }
+    }
+    
+    /**
+     * Get the start of the hour bucket containing a time
+     * The current hour is cached, so the zoned conversion only runs when an hour ends
+     * @param epochSecond The time
+     * @return The hour start in epoch seconds
+     */
+    private long getHourStart(long epochSecond) {
+        Hour hour = currentHour;
+        
+        // Also recompute if the clock moved backwards
+        if (epochSecond >= hour.end || epochSecond < hour.start) {
+            long start = BucketResolution.HOUR.truncate(epochSecond, zone);
+            hour = new Hour(start, BucketResolution.HOUR.plus(start, 1L, zone));
+            currentHour = hour;
+        }
+        
+        return hour.start;
+    }
+    
+    /**
+     * Get the number of player/ore entries waiting to be written
+     * @return The number of pending entries
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+    
+    /**
+     * Write all pending increments to the storage backend
+     * Increments that fail to write are returned to the buffer
+     */
+    public void flush() {
+        flushLock.writeLock().lock();
+        try {
+            write(drain(key -> true));
+        } finally {
+            flushLock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Write the pending increments of some players, e.g. before their statistics are loaded
+     * Waits for a full flush in progress, so everything buffered for the players is stored on return,
+     * while flushes for different players run concurrently
+     * @param uuids The player UUIDs
+     */
+    public void flush(Collection<UUID> uuids) {
+        Set<UUID> players = new HashSet<>(uuids);
+        
+        flushLock.readLock().lock();
+        try {
+            write(drain(key -> players.contains(key.uuid)));
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Write drained increments to the storage backend, returning them to the buffer if that fails
+     * @param deltas The increments
+     */
+    private void write(List<StatisticDelta> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        
+        try {
+            databaseManager.getBackend().applyDeltas(deltas).join();
+        } catch (CompletionException e) {
+            plugin.getLogger().severe("Error flushing mining statistics: " + e.getCause().getMessage());
+            restore(deltas);
+        }
+    }
+    
+    /**
+     * Stop the periodic flush and write everything that is still pending
+     */
+    public void close() {
+        if (flushTask != null) {
+            flushTask.cancel();
+            flushTask = null;
+        }
+        
+        flush();
+        
+        if (!pending.isEmpty()) {
+            plugin.getLogger().warning("Discarding " + pending.size() + " unsaved mining statistic entries");
+        }
+    }
+    
+    /**
+     * Remove pending entries from the buffer
+     * @param filter Selects the entries to remove
+     * @return The removed entries as deltas
+     */
+    private List<StatisticDelta> drain(Predicate<Key> filter) {
+        List<StatisticDelta> deltas = new ArrayList<>();
+        
+        for (Key key : pending.keySet()) {
+            if (!filter.test(key)) {
+                continue;
+            }
+            Pending entry = pending.remove(key);
+            if (entry != null) {
+                deltas.add(new StatisticDelta(key.uuid, key.oreName, key.hourStart, entry.timesMined, entry.amountEarned));
+            }
+        }
+        
+        return deltas;
+    }
+    
+    /**
+     * Put deltas that could not be written back into the buffer
+     * @param deltas The deltas to restore
+     */
+    private void restore(List<StatisticDelta> deltas) {
+        for (StatisticDelta delta : deltas) {
+            pending.compute(new Key(delta.getUuid(), delta.getOreName(), delta.getHourStart()), (key, entry) -> {
+                if (entry == null) {
+                    entry = new Pending();
+                }
+                entry.timesMined += delta.getTimesMined();
+                entry.amountEarned += delta.getAmountEarned();
+                return entry;
+            });
+        }
+    }
+    
+    /**
+     * Buffer key identifying a player, ore and hour
+     */
+    private static final class Key {
+        private final UUID uuid;
+        private final String oreName;
+        private final long hourStart;
+        
+        private Key(UUID uuid, String oreName, long hourStart) {
+            this.uuid = uuid;
+            this.oreName = oreName;
+            this.hourStart = hourStart;
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return hourStart == other.hourStart && uuid.equals(other.uuid) && oreName.equals(other.oreName);
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(uuid, oreName, hourStart);
+        }
+    }
+    
+    /**
+     * Start and end of an hour bucket in epoch seconds, replaced as a whole when the hour ends
+     */
+    private static final class Hour {
+        private final long start;
+        private final long end;
+        
+        private Hour(long start, long end) {
+            this.start = start;
+            this.end = end;
+        }
+    }
+    
+    /**
+     * Mutable accumulator for a buffer entry, only modified inside map compute calls
+     */
+    private static final class Pending {
+        private int timesMined;
+        private double amountEarned;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,119 @@
+package com.orepay.data;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Where player statistics and settings are kept, selected by storage.type
+ * Every operation returns a future, so each backend decides where its I/O runs: database
+ * backends run on the storage executor, in-memory backends complete right away
+ * Reads and writes take whole batches so a backend can serve them with one query or transaction
+ */
+public interface StorageBackend {
+    
+    /**
+     * Get the name of the backend, as used for storage.type
+     * @return The backend name
+     */
+    String getName();
+    
+    /**
+     * Load the statistics and settings of a batch of players
+     * @param uuids The player UUIDs
+     * @return CompletableFuture with an entry for every requested player, players without data get an empty one
+     */
+    CompletableFuture<Map<UUID, StoredPlayer>> loadPlayers(Collection<UUID> uuids);
+
+    /**
+     * Load the totals of a batch of players
+     * Computed from the players' statistics unless the backend stores totals itself
+     * @param uuids The player UUIDs
+     * @return CompletableFuture with an entry for every requested player, players without data get empty totals
+     */
+    default CompletableFuture<Map<UUID, PlayerTotals>> loadTotals(Collection<UUID> uuids) {
+        return loadPlayers(uuids).thenApply(players -> {
+            Map<UUID, PlayerTotals> totals = new HashMap<>();
+            players.forEach((uuid, stored) -> totals.put(uuid, PlayerStatistics.of(stored.getStatistics()).toTotals()));
+            return totals;
+        });
+    }
+    
+    /**
+     * Load whether rewards are enabled for a batch of players, without their statistics
+     * Read through loadPlayers unless the backend can read settings on their own
+     * @param uuids The player UUIDs
+     * @return CompletableFuture with an entry for every requested player, players without a setting get true
+     */
+    default CompletableFuture<Map<UUID, Boolean>> loadSettings(Collection<UUID> uuids) {
+        return loadPlayers(uuids).thenApply(players -> {
+            Map<UUID, Boolean> settings = new HashMap<>();
+            players.forEach((uuid, stored) -> settings.put(uuid, stored.isRewardsEnabled()));
+            return settings;
+        });
+    }
+    
+    /**
+     * Get every player with stored statistics or settings
+     * @return CompletableFuture with the player UUIDs
+     */
+    CompletableFuture<Set<UUID>> loadPlayerIds();
+    
+    /**
+     * Add a batch of statistic increments, applied as a whole or not at all
+     * @param deltas The increments
+     * @return CompletableFuture that completes when the increments are stored, or fails if they were not
+     */
+    CompletableFuture<Void> applyDeltas(List<StatisticDelta> deltas);
+    
+    /**
+     * Set whether rewards are enabled for a player
+     * @param uuid The player UUID
+     * @param enabled Whether rewards should be enabled
+     * @return CompletableFuture that completes when the setting is stored
+     */
+    CompletableFuture<Void> setRewardsEnabled(UUID uuid, boolean enabled);
+    
+    /**
+     * Load the players with the highest total amount earned
+     * @param limit The maximum number of players
+     * @return CompletableFuture with a map of player UUID to total earned, highest first
+     */
+    CompletableFuture<Map<UUID, Double>> loadTopEarned(int limit);
+    
+    /**
+     * Load the players with the highest total number of ores mined
+     * @param limit The maximum number of players
+     * @return CompletableFuture with a map of player UUID to total mined, highest first
+     */
+    CompletableFuture<Map<UUID, Double>> loadTopMined(int limit);
+    
+    /**
+     * Load the players who mined an ore the most times
+     * @param oreName The ore name
+     * @param limit The maximum number of players
+     * @return CompletableFuture with a map of player UUID to times mined, highest first
+     */
+    CompletableFuture<Map<UUID, Double>> loadTopOreMined(String oreName, int limit);
+    
+    /**
+     * Drop anything the backend caches for a player who went offline
+     * @param uuid The player UUID
+     */
+    default void unloadPlayer(UUID uuid) {
+    }
+    
+    /**
+     * Write any data the backend holds in memory to disk (blocking)
+     */
+    void save();
+    
+    /**
+     * Stop background tasks, write any remaining data and release the backend's resources
+     */
+    void close();
+}
\ No newline at end of file
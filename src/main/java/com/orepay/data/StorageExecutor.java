@@ -0,0 +1,189 @@
+package com.orepay.data;
+
+import com.orepay.OrePay;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Bounded thread pool that runs all blocking storage I/O
+ */
+public class StorageExecutor {
+    
+    /**
+     * What to do with a task when the queue is full
+     */
+    public enum OverflowPolicy {
+        /** Run the task on the submitting thread */
+        CALLER_RUNS,
+        /** Reject the task */
+        ABORT,
+        /** Drop the oldest queued task to make room */
+        DISCARD_OLDEST;
+        
+        /**
+         * Parse a policy from its config name
+         * @param name The config name, e.g. "caller-runs"
+         * @return The policy, or CALLER_RUNS if the name is unknown
+         */
+        public static OverflowPolicy fromConfig(String name) {
+            try {
+                return valueOf(name.toUpperCase().replace('-', '_'));
+            } catch (IllegalArgumentException e) {
+                return CALLER_RUNS;
+            }
+        }
+    }
+    
+    private final OrePay plugin;
+    private final ThreadPoolExecutor executor;
+    
+    public StorageExecutor(OrePay plugin) {
+        this.plugin = plugin;
+        
+        int threads = Math.max(1, plugin.getConfigManager().getInt("storage.executor.threads", 4));
+        int queueCapacity = Math.max(1, plugin.getConfigManager().getInt("storage.executor.queue-capacity", 1000));
+        OverflowPolicy policy = OverflowPolicy.fromConfig(plugin.getConfigManager().getString("storage.executor.overflow-policy", "caller-runs"));
+        
+        this.executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new StorageThreadFactory(), createHandler(policy));
+    }
+    
+    /**
+     * Create the rejection handler for an overflow policy
+     * @param policy The overflow policy
+     * @return The rejection handler
+     */
+    private RejectedExecutionHandler createHandler(OverflowPolicy policy) {
+        switch (policy) {
+            case ABORT:
+                return new ThreadPoolExecutor.AbortPolicy();
+            case DISCARD_OLDEST:
+                return (task, pool) -> {
+                    plugin.getLogger().warning("Storage queue is full, discarding the oldest task");
+                    if (!pool.isShutdown()) {
+                        pool.getQueue().poll();
+                        pool.execute(task);
+                    }
+                };
+            case CALLER_RUNS:
+            default:
+                return new ThreadPoolExecutor.CallerRunsPolicy();
+        }
+    }
+    
+    /**
+     * Run a task on the storage threads
+     * @param task The task to run
+     */
+    public void execute(Runnable task) {
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            plugin.getLogger().warning("Storage task rejected: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Compute a value on the storage threads
+     * Called from a storage thread the value is computed right away, so storage tasks can
+     * wait for the result without tying up a second thread
+     * @param supplier The value supplier
+     * @param <T> The value type
+     * @return CompletableFuture with the computed value
+     */
+    public <T> CompletableFuture<T> supply(Supplier<T> supplier) {
+        if (isStorageThread()) {
+            try {
+                return CompletableFuture.completedFuture(supplier.get());
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        
+        try {
+            return CompletableFuture.supplyAsync(supplier, executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+    
+    /**
+     * Check if the current thread is one of the storage threads
+     * @return True if called from a storage thread
+     */
+    public boolean isStorageThread() {
+        return Thread.currentThread() instanceof StorageThread;
+    }
+    
+    /**
+     * Get the number of tasks waiting in the queue
+     * @return The queue depth
+     */
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+    
+    /**
+     * Get the number of free slots left in the queue
+     * @return The remaining queue capacity
+     */
+    public int getRemainingCapacity() {
+        return executor.getQueue().remainingCapacity();
+    }
+    
+    /**
+     * Get the number of threads currently running a task
+     * @return The active thread count
+     */
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+    
+    /**
+     * Stop accepting tasks and wait for queued tasks to finish
+     * @param timeoutSeconds How long to wait before interrupting remaining tasks
+     */
+    public void shutdown(long timeoutSeconds) {
+        executor.shutdown();
+        
+        try {
+            if (!executor.awaitTermination(timeoutSeconds, TimeUnit.SECONDS)) {
+                plugin.getLogger().warning("Storage tasks did not finish in time, " + executor.shutdownNow().size() + " tasks dropped");
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    /**
+     * Thread factory that names storage threads
+     */
+    private static final class StorageThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+        
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new StorageThread(runnable, "OrePay-Storage-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+    
+    /**
+     * Marker type for storage threads
+     */
+    private static final class StorageThread extends Thread {
+        private StorageThread(Runnable runnable, String name) {
+            super(runnable, name);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,44 @@
+package com.orepay.data;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * A player's statistics and settings as read from storage
+ */
+public final class StoredPlayer {
+    
+    private static final StoredPlayer EMPTY = new StoredPlayer(Collections.emptyMap(), true);
+    
+    private final Map<String, DatabaseManager.StatisticEntry> statistics;
+    private final boolean rewardsEnabled;
+    
+    public StoredPlayer(Map<String, DatabaseManager.StatisticEntry> statistics, boolean rewardsEnabled) {
+        this.statistics = statistics;
+        this.rewardsEnabled = rewardsEnabled;
+    }
+    
+    /**
+     * Get the data of a player storage knows nothing about
+     * @return A player without statistics and with rewards enabled
+     */
+    public static StoredPlayer empty() {
+        return EMPTY;
+    }
+    
+    /**
+     * Get the player's statistics
+     * @return Map of ore names to StatisticEntry objects
+     */
+    public Map<String, DatabaseManager.StatisticEntry> getStatistics() {
+        return statistics;
+    }
+    
+    /**
+     * Check if rewards are enabled for the player
+     * @return True if rewards are enabled
+     */
+    public boolean isRewardsEnabled() {
+        return rewardsEnabled;
+    }
+}
\ No newline at end of file
@@ -4,25 +4,41 @@ import com.orepay.OrePay;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.scheduler.BukkitTask;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.UUID;
 
 /**
  * Manages data storage in YAML files
+ * Data is kept in memory and written to disk periodically on the storage executor
+ * when it has changed. The saved files are mirrored in configurations owned by the
+ * save, so only the changed entries are handed over under the data lock
  */
-public class YamlDataManager {
+public class YamlDataManager extends MemoryStorageBackend {
     
     private final OrePay plugin;
     private final File statisticsFile;
     private final File settingsFile;
-    private FileConfiguration statisticsConfig;
-    private FileConfiguration settingsConfig;
+    private final Object saveLock = new Object();
+    private final YamlConfiguration statisticsConfig;
+    private final YamlConfiguration settingsConfig;
+    private Map<UUID, Map<String, DatabaseManager.StatisticEntry>> dirtyStatistics = new HashMap<>();
+    private Map<UUID, Boolean> dirtySettings = new HashMap<>();
+    private boolean statisticsUnsaved;
+    private boolean settingsUnsaved;
+    private BukkitTask saveTask;
     
-    public YamlDataManager(OrePay plugin) {
+    public YamlDataManager(OrePay plugin, StorageExecutor storageExecutor) {
         this.plugin = plugin;
         
         this.statisticsFile = new File(plugin.getDataFolder(), "statistics.yml");
@@ -31,9 +47,16 @@ public class YamlDataManager {
         // Create files if they don't exist
         createFiles();
         
-        // Load the configurations
+        // Load the data into memory
         this.statisticsConfig = YamlConfiguration.loadConfiguration(statisticsFile);
         this.settingsConfig = YamlConfiguration.loadConfiguration(settingsFile);
+        loadStatistics(statisticsConfig);
+        loadSettings(settingsConfig);
+        
+        // Write changes to disk periodically
+        long interval = Math.max(1L, plugin.getConfigManager().getLong("storage.yaml.save-interval-ticks", 200L));
+        this.saveTask = plugin.getServer().getScheduler().runTaskTimer(plugin,
+                () -> storageExecutor.execute(this::save), interval, interval);
     }
     
     /**
@@ -62,160 +85,175 @@ public class YamlDataManager {
     }
     
     /**
-     * Save the statistics configuration
+     * Load statistics from the statistics configuration
+     * @param config The loaded statistics.yml
      */
-    private void saveStatistics() {
-        try {
-            statisticsConfig.save(statisticsFile);
-        } catch (IOException e) {
-            plugin.getLogger().severe("Error saving statistics.yml: " + e.getMessage());
+    private void loadStatistics(FileConfiguration config) {
+        ConfigurationSection playersSection = config.getConfigurationSection("players");
+        if (playersSection == null) {
+            return;
+        }
+        
+        for (String key : playersSection.getKeys(false)) {
+            UUID uuid;
+            try {
+                uuid = UUID.fromString(key);
+            } catch (IllegalArgumentException e) {
+                plugin.getLogger().warning("Invalid UUID in statistics.yml: " + key);
+                continue;
+            }
+            
+            ConfigurationSection oresSection = playersSection.getConfigurationSection(key + ".ores");
+            if (oresSection == null) {
+                continue;
+            }
+            
+            Map<String, MutableStatistic> ores = new LinkedHashMap<>();
+            for (String oreName : oresSection.getKeys(false)) {
+                MutableStatistic statistic = new MutableStatistic();
+                statistic.timesMined = oresSection.getInt(oreName + ".times-mined", 0);
+                statistic.amountEarned = oresSection.getDouble(oreName + ".amount-earned", 0.0);
+                ores.put(oreName, statistic);
+            }
+            statistics.put(uuid, ores);
         }
     }
     
     /**
-     * Save the settings configuration
+     * Load settings from the settings configuration
+     * @param config The loaded settings.yml
      */
-    private void saveSettings() {
-        try {
-            settingsConfig.save(settingsFile);
-        } catch (IOException e) {
-            plugin.getLogger().severe("Error saving settings.yml: " + e.getMessage());
+    private void loadSettings(FileConfiguration config) {
+        ConfigurationSection playersSection = config.getConfigurationSection("players");
+        if (playersSection == null) {
+            return;
+        }
+        
+        for (String key : playersSection.getKeys(false)) {
+            try {
+                settings.put(UUID.fromString(key), playersSection.getBoolean(key + ".rewards-enabled", true));
+            } catch (IllegalArgumentException e) {
+                plugin.getLogger().warning("Invalid UUID in settings.yml: " + key);
+            }
         }
     }
     
     /**
-     * Record a mining statistic
-     * @param uuid The player UUID
-     * @param oreName The ore name
-     * @param amount The amount earned
+     * Write any changed data to disk
+     * The changed entries are swapped out under the data lock, and applying them,
+     * serialization and file I/O happen outside it
      */
-    public void recordMiningStatistic(UUID uuid, String oreName, double amount) {
-        String playerPath = "players." + uuid.toString() + ".ores." + oreName;
-        
-        // Update times mined
-        int timesMined = statisticsConfig.getInt(playerPath + ".times-mined", 0) + 1;
-        statisticsConfig.set(playerPath + ".times-mined", timesMined);
-        
-        // Update amount earned
-        double amountEarned = statisticsConfig.getDouble(playerPath + ".amount-earned", 0.0) + amount;
-        statisticsConfig.set(playerPath + ".amount-earned", amountEarned);
-        
-        // Save the changes
-        saveStatistics();
+    @Override
+    public void save() {
+        synchronized (saveLock) {
+            Map<UUID, Map<String, DatabaseManager.StatisticEntry>> changedStatistics;
+            Map<UUID, Boolean> changedSettings;
+            
+            synchronized (this) {
+                changedStatistics = dirtyStatistics;
+                changedSettings = dirtySettings;
+                if (!changedStatistics.isEmpty()) {
+                    dirtyStatistics = new HashMap<>();
+                }
+                if (!changedSettings.isEmpty()) {
+                    dirtySettings = new HashMap<>();
+                }
+            }
+            
+            if (!changedStatistics.isEmpty()) {
+                applyStatistics(changedStatistics);
+                statisticsUnsaved = true;
+            }
+            if (!changedSettings.isEmpty()) {
+                applySettings(changedSettings);
+                settingsUnsaved = true;
+            }
+            
+            // A failed write is retried on the next save
+            if (statisticsUnsaved && writeAtomically(statisticsConfig, statisticsFile)) {
+                statisticsUnsaved = false;
+            }
+            if (settingsUnsaved && writeAtomically(settingsConfig, settingsFile)) {
+                settingsUnsaved = false;
+            }
+        }
     }
     
     /**
-     * Get all statistics for a player
-     * @param uuid The player UUID
-     * @return Map of ore names to StatisticEntry objects
+     * Stop the periodic save and write any changed data to disk
      */
-    public Map<String, DatabaseManager.StatisticEntry> getPlayerStatistics(UUID uuid) {
-        Map<String, DatabaseManager.StatisticEntry> statistics = new HashMap<>();
-        
-        String playerPath = "players." + uuid.toString() + ".ores";
-        ConfigurationSection oresSection = statisticsConfig.getConfigurationSection(playerPath);
-        
-        if (oresSection != null) {
-            for (String oreName : oresSection.getKeys(false)) {
-                int timesMined = statisticsConfig.getInt(playerPath + "." + oreName + ".times-mined", 0);
-                double amountEarned = statisticsConfig.getDouble(playerPath + "." + oreName + ".amount-earned", 0.0);
-                
-                statistics.put(oreName, new DatabaseManager.StatisticEntry(timesMined, amountEarned));
-            }
+    @Override
+    public void close() {
+        if (saveTask != null) {
+            saveTask.cancel();
+            saveTask = null;
         }
         
-        return statistics;
+        save();
     }
     
     /**
-     * Get the total amount earned by a player
-     * @param uuid The player UUID
-     * @return The total amount earned
+     * Copy changed statistics into the saved statistics configuration
+     * @param changed Map of player UUID to their changed ores and current values
      */
-    public double getTotalEarned(UUID uuid) {
-        Map<String, DatabaseManager.StatisticEntry> statistics = getPlayerStatistics(uuid);
-        return statistics.values().stream().mapToDouble(DatabaseManager.StatisticEntry::getAmountEarned).sum();
+    private void applyStatistics(Map<UUID, Map<String, DatabaseManager.StatisticEntry>> changed) {
+        for (Map.Entry<UUID, Map<String, DatabaseManager.StatisticEntry>> player : changed.entrySet()) {
+            String playerPath = "players." + player.getKey() + ".ores.";
+            for (Map.Entry<String, DatabaseManager.StatisticEntry> ore : player.getValue().entrySet()) {
+                statisticsConfig.set(playerPath + ore.getKey() + ".times-mined", ore.getValue().getTimesMined());
+                statisticsConfig.set(playerPath + ore.getKey() + ".amount-earned", ore.getValue().getAmountEarned());
+            }
+        }
     }
     
     /**
-     * Get the total number of ores mined by a player
-     * @param uuid The player UUID
-     * @return The total number of ores mined
+     * Copy changed settings into the saved settings configuration
+     * @param changed Map of player UUID to whether rewards are enabled
      */
-    public int getTotalMined(UUID uuid) {
-        Map<String, DatabaseManager.StatisticEntry> statistics = getPlayerStatistics(uuid);
-        return statistics.values().stream().mapToInt(DatabaseManager.StatisticEntry::getTimesMined).sum();
+    private void applySettings(Map<UUID, Boolean> changed) {
+        for (Map.Entry<UUID, Boolean> entry : changed.entrySet()) {
+            settingsConfig.set("players." + entry.getKey() + ".rewards-enabled", entry.getValue());
+        }
     }
     
     /**
-     * Get the most mined ore by a player
-     * @param uuid The player UUID
-     * @return The name of the most mined ore
+     * Write a configuration to a temporary file and move it over the target
+     * @param config The configuration to write
+     * @param file The target file
+     * @return True if the file was written
      */
-    public String getMostMinedOre(UUID uuid) {
-        Map<String, DatabaseManager.StatisticEntry> statistics = getPlayerStatistics(uuid);
-        
-        String mostMinedOre = "None";
-        int highestCount = 0;
+    private boolean writeAtomically(YamlConfiguration config, File file) {
+        Path target = file.toPath();
+        Path temp = target.resolveSibling(file.getName() + ".tmp");
         
-        for (Map.Entry<String, DatabaseManager.StatisticEntry> entry : statistics.entrySet()) {
-            if (entry.getValue().getTimesMined() > highestCount) {
-                highestCount = entry.getValue().getTimesMined();
-                mostMinedOre = entry.getKey();
+        try {
+            Files.writeString(temp, config.saveToString(), StandardCharsets.UTF_8);
+            
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
             }
+            return true;
+        } catch (IOException e) {
+            plugin.getLogger().severe("Error saving " + file.getName() + ": " + e.getMessage());
+            return false;
         }
-        
-        return mostMinedOre;
-    }
-    
-    /**
-     * Get the number of times a player has mined a specific ore
-     * @param uuid The player UUID
-     * @param oreName The ore name
-     * @return The number of times the ore was mined
-     */
-    public int getOreMinedCount(UUID uuid, String oreName) {
-        String path = "players." + uuid.toString() + ".ores." + oreName + ".times-mined";
-        return statisticsConfig.getInt(path, 0);
     }
     
-    /**
-     * Get the amount earned from a specific ore by a player
-     * @param uuid The player UUID
-     * @param oreName The ore name
-     * @return The amount earned
-     */
-    public double getOreEarnedAmount(UUID uuid, String oreName) {
-        String path = "players." + uuid.toString() + ".ores." + oreName + ".amount-earned";
-        return statisticsConfig.getDouble(path, 0.0);
+    @Override
+    public String getName() {
+        return "yaml";
     }
     
-    /**
-     * Check if rewards are enabled for a player
-     * @param uuid The player UUID
-     * @return True if rewards are enabled, false otherwise
-     */
-    public boolean areRewardsEnabled(UUID uuid) {
-        String path = "players." + uuid.toString() + ".rewards-enabled";
-        
-        // If not set, default to true
-        if (!settingsConfig.contains(path)) {
-            settingsConfig.set(path, true);
-            saveSettings();
-            return true;
-        }
-        
-        return settingsConfig.getBoolean(path);
+    @Override
+    protected void statisticChanged(UUID uuid, String oreName, MutableStatistic statistic) {
+        dirtyStatistics.computeIfAbsent(uuid, key -> new HashMap<>())
+                .put(oreName, new DatabaseManager.StatisticEntry(statistic.timesMined, statistic.amountEarned));
     }
     
-    /**
-     * Set whether rewards are enabled for a player
-     * @param uuid The player UUID
-     * @param enabled Whether rewards should be enabled
-     */
-    public void setRewardsEnabled(UUID uuid, boolean enabled) {
-        String path = "players." + uuid.toString() + ".rewards-enabled";
-        settingsConfig.set(path, enabled);
-        saveSettings();
+    @Override
+    protected void settingChanged(UUID uuid, boolean enabled) {
+        dirtySettings.put(uuid, enabled);
     }
 }
\ No newline at end of file
@@ -0,0 +1,106 @@
+package com.orepay.economy;
+
+import com.orepay.OrePay;
+import com.orepay.api.events.OreBatchMinedEvent;
+import com.orepay.api.events.PlayerBatchRewardedEvent;
+import com.orepay.config.RewardTable;
+import com.orepay.data.DatabaseManager;
+import org.bukkit.Material;
+import org.bukkit.block.Block;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rewards many ores mined at once, e.g. by TNT or an area tool, as a single reward
+ * The multiplier is resolved once, the money deposited once, the statistics recorded
+ * as one set of increments and one event fired for the whole batch
+ */
+public class BatchRewardProcessor {
+    
+    private final OrePay plugin;
+    
+    public BatchRewardProcessor(OrePay plugin) {
+        this.plugin = plugin;
+    }
+    
+    /**
+     * Reward a player for a batch of ores
+     * Fires OreBatchMinedEvent (cancellable) and, if anything was rewarded, PlayerBatchRewardedEvent
+     * @param player The player to reward
+     * @param ores Map of ore material to the number mined, materials without a reward are ignored
+     * @param blocks The broken blocks, or an empty list if the ores were not broken in the world
+     * @param notify Whether to send the player a reward notification
+     * @return The total amount rewarded (after multipliers)
+     */
+    public double reward(Player player, Map<Material, Integer> ores, List<Block> blocks, boolean notify) {
+        RewardTable rewardTable = plugin.getConfigManager().getRewardTable();
+        Map<Material, Integer> counts = new EnumMap<>(Material.class);
+        Map<Material, Double> rewards = new EnumMap<>(Material.class);
+        
+        for (Map.Entry<Material, Integer> ore : ores.entrySet()) {
+            if (ore.getValue() > 0 && rewardTable.isRewarded(ore.getKey())) {
+                counts.put(ore.getKey(), ore.getValue());
+                rewards.put(ore.getKey(), rewardTable.getReward(ore.getKey()));
+            }
+        }
+        
+        if (counts.isEmpty()) {
+            return 0;
+        }
+        
+        // Fire OreBatchMinedEvent (cancellable, ores and blocks can be removed)
+        OreBatchMinedEvent minedEvent = new OreBatchMinedEvent(player, counts, rewards, new ArrayList<>(blocks));
+        plugin.getServer().getPluginManager().callEvent(minedEvent);
+        
+        if (minedEvent.isCancelled() || counts.isEmpty()) {
+            return 0;
+        }
+        
+        // Apply multiplier, resolved once for the whole batch
+        double multiplier = plugin.getMultiplierManager().getMultiplier(player);
+        double minimumPayout = plugin.getConfigManager().getSettings().getMinimumPayout();
+        
+        Map<Material, DatabaseManager.StatisticEntry> rewarded = new EnumMap<>(Material.class);
+        Map<Material, Integer> rewardedCounts = new EnumMap<>(Material.class);
+        double total = 0;
+        
+        for (Map.Entry<Material, Integer> ore : counts.entrySet()) {
+            double oreAmount = minedEvent.getReward(ore.getKey()) * multiplier;
+            
+            // If an ore's amount is too small due to multipliers, skip it like a single mined ore
+            if (oreAmount < minimumPayout) {
+                continue;
+            }
+            
+            double amount = oreAmount * ore.getValue();
+            rewarded.put(ore.getKey(), new DatabaseManager.StatisticEntry(ore.getValue(), amount));
+            rewardedCounts.put(ore.getKey(), ore.getValue());
+            total += amount;
+        }
+        
+        if (rewarded.isEmpty()) {
+            return 0;
+        }
+        
+        // Give reward
+        plugin.getPayoutCoalescer().deposit(player, total);
+        
+        // Record statistics
+        plugin.getDataManager().recordMiningStatistics(player, rewarded);
+        
+        // Send notification
+        if (notify) {
+            plugin.getUiManager().sendBatchRewardNotification(player, rewardedCounts, total);
+        }
+        
+        // Fire PlayerBatchRewardedEvent
+        PlayerBatchRewardedEvent rewardedEvent = new PlayerBatchRewardedEvent(player, rewarded, total, multiplier);
+        plugin.getServer().getPluginManager().callEvent(rewardedEvent);
+        
+        return total;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,103 @@
+package com.orepay.economy;
+
+import com.orepay.OrePay;
+import com.orepay.api.events.PayoutDepositedEvent;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Adds up a player's payouts over a short window of ticks and deposits the total once
+ * When coalescing is disabled every payout is deposited immediately
+ * Only used from the server thread
+ */
+public class PayoutCoalescer {
+    
+    private final OrePay plugin;
+    private final Map<UUID, PendingPayout> pending = new HashMap<>();
+    
+    public PayoutCoalescer(OrePay plugin) {
+        this.plugin = plugin;
+    }
+    
+    /**
+     * Pay a player, either now or when the player's coalescing window closes
+     * @param player The player
+     * @param amount The amount to pay
+     */
+    public void deposit(Player player, double amount) {
+        if (!plugin.getConfigManager().getSettings().isPayoutCoalescingEnabled()) {
+            plugin.getEconomy().depositPlayer(player, amount);
+            return;
+        }
+        
+        PendingPayout payout = pending.get(player.getUniqueId());
+        if (payout == null) {
+            payout = new PendingPayout(player);
+            pending.put(player.getUniqueId(), payout);
+            
+            // The first payout opens the window, the total is deposited when it closes
+            UUID uuid = player.getUniqueId();
+            long window = plugin.getConfigManager().getSettings().getPayoutCoalescingWindowTicks();
+            payout.task = plugin.getServer().getScheduler().runTaskLater(plugin, () -> flush(uuid), window);
+        }
+        
+        payout.amount += amount;
+        payout.rewards++;
+    }
+    
+    /**
+     * Deposit a player's pending payout now
+     * @param uuid The player UUID
+     */
+    public void flush(UUID uuid) {
+        PendingPayout payout = pending.remove(uuid);
+        if (payout == null) {
+            return;
+        }
+        
+        if (payout.task != null) {
+            payout.task.cancel();
+        }
+        
+        plugin.getEconomy().depositPlayer(payout.player, payout.amount);
+        
+        // Fire PayoutDepositedEvent
+        plugin.getServer().getPluginManager().callEvent(new PayoutDepositedEvent(payout.player, payout.amount, payout.rewards));
+    }
+    
+    /**
+     * Deposit all pending payouts now
+     */
+    public void flushAll() {
+        for (UUID uuid : new ArrayList<>(pending.keySet())) {
+            flush(uuid);
+        }
+    }
+    
+    /**
+     * Get the number of players with a payout waiting to be deposited
+     * @return The number of pending payouts
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+    
+    /**
+     * Payout waiting for its window to close
+     */
+    private static final class PendingPayout {
+        private final Player player;
+        private double amount;
+        private int rewards;
+        private BukkitTask task;
+        
+        private PendingPayout(Player player) {
+            this.player = player;
+        }
+    }
+}
\ No newline at end of file
@@ -1,6 +1,8 @@
 package com.orepay.integration;
 
 import com.orepay.OrePay;
+import com.orepay.leaderboard.Leaderboard;
+import com.orepay.leaderboard.LeaderboardEntry;
 import me.clip.placeholderapi.expansion.PlaceholderExpansion;
 import org.bukkit.OfflinePlayer;
 import org.bukkit.entity.Player;
@@ -38,6 +40,11 @@ public class PlaceholderManager extends PlaceholderExpansion {
     
     @Override
     public String onRequest(OfflinePlayer player, String identifier) {
+        // Leaderboard placeholders don't depend on the player
+        if (identifier.startsWith("top_")) {
+            return processLeaderboardPlaceholder(identifier);
+        }
+        
         if (player == null) {
             return "";
         }
@@ -50,32 +57,73 @@ public class PlaceholderManager extends PlaceholderExpansion {
         // Handle placeholders for offline players
         switch (identifier.toLowerCase()) {
             case "total_earned":
-                return String.format("%.2f", plugin.getDataManager().getTotalEarnedSync(player.getUniqueId()));
+                return String.format("%.2f", plugin.getDataManager().getCachedTotals(player.getUniqueId()).getTotalEarned());
                 
             case "total_mined":
-                return String.valueOf(plugin.getDataManager().getTotalMinedSync(player.getUniqueId()));
+                return String.valueOf(plugin.getDataManager().getCachedTotals(player.getUniqueId()).getTotalMined());
                 
             case "most_mined_ore":
-                return plugin.getDataManager().getMostMinedOreSync(player.getUniqueId());
+                return plugin.getDataManager().getCachedTotals(player.getUniqueId()).getMostMinedOre();
                 
             case "enabled":
-                return Boolean.toString(plugin.getDataManager().areRewardsEnabledSync(player.getUniqueId()));
+                return Boolean.toString(plugin.getDataManager().areRewardsEnabledCached(player.getUniqueId()));
         }
         
         // Check if it's an ore-specific placeholder
         if (identifier.startsWith("mined_")) {
             String oreName = identifier.substring(6).toUpperCase();
-            return String.valueOf(plugin.getDataManager().getOreMinedCountSync(player.getUniqueId(), oreName));
+            return String.valueOf(plugin.getDataManager().getCachedStatistics(player.getUniqueId()).getOreMinedCount(oreName));
         }
         
         if (identifier.startsWith("earned_")) {
             String oreName = identifier.substring(7).toUpperCase();
-            return String.format("%.2f", plugin.getDataManager().getOreEarnedAmountSync(player.getUniqueId(), oreName));
+            return String.format("%.2f", plugin.getDataManager().getCachedStatistics(player.getUniqueId()).getOreEarnedAmount(oreName));
         }
         
         return null; // Placeholder not found
     }
     
+    /**
+     * Process leaderboard placeholders, e.g. top_earned_1_name or top_diamond_ore_3_value
+     * @param identifier The placeholder identifier
+     * @return The placeholder value
+     */
+    private String processLeaderboardPlaceholder(String identifier) {
+        // top_<board>_<rank>_<name|value>
+        int fieldSeparator = identifier.lastIndexOf('_');
+        int rankSeparator = identifier.lastIndexOf('_', fieldSeparator - 1);
+        if (rankSeparator <= 4) {
+            return null;
+        }
+        
+        Leaderboard leaderboard = plugin.getLeaderboardManager().getLeaderboard(identifier.substring(4, rankSeparator));
+        if (leaderboard == null) {
+            return null;
+        }
+        
+        int rank;
+        try {
+            rank = Integer.parseInt(identifier.substring(rankSeparator + 1, fieldSeparator));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        
+        LeaderboardEntry entry = leaderboard.get(rank);
+        switch (identifier.substring(fieldSeparator + 1)) {
+            case "name":
+                return entry != null ? entry.getName() : "-";
+            case "value":
+                if (entry == null) {
+                    return "0";
+                }
+                return leaderboard == plugin.getLeaderboardManager().getEarned()
+                        ? String.format("%.2f", entry.getValue())
+                        : String.valueOf((long) entry.getValue());
+            default:
+                return null;
+        }
+    }
+    
     /**
      * Process placeholders for online players
      * @param player The online player
@@ -88,13 +136,13 @@ public class PlaceholderManager extends PlaceholderExpansion {
                 return String.format("%.2f", plugin.getMultiplierManager().getMultiplier(player));
                 
             case "total_earned":
-                return String.format("%.2f", plugin.getDataManager().getTotalEarnedSync(player.getUniqueId()));
+                return String.format("%.2f", plugin.getDataManager().getCachedStatistics(player.getUniqueId()).getTotalEarned());
                 
             case "total_mined":
-                return String.valueOf(plugin.getDataManager().getTotalMinedSync(player.getUniqueId()));
+                return String.valueOf(plugin.getDataManager().getCachedStatistics(player.getUniqueId()).getTotalMined());
                 
             case "most_mined_ore":
-                return plugin.getDataManager().getMostMinedOreSync(player.getUniqueId());
+                return plugin.getDataManager().getCachedStatistics(player.getUniqueId()).getMostMinedOre();
                 
             case "enabled":
                 return Boolean.toString(plugin.getDataManager().areRewardsEnabledSync(player));
@@ -103,12 +151,12 @@ public class PlaceholderManager extends PlaceholderExpansion {
         // Check if it's an ore-specific placeholder
         if (identifier.startsWith("mined_")) {
             String oreName = identifier.substring(6).toUpperCase();
-            return String.valueOf(plugin.getDataManager().getOreMinedCountSync(player.getUniqueId(), oreName));
+            return String.valueOf(plugin.getDataManager().getCachedStatistics(player.getUniqueId()).getOreMinedCount(oreName));
         }
         
         if (identifier.startsWith("earned_")) {
             String oreName = identifier.substring(7).toUpperCase();
-            return String.format("%.2f", plugin.getDataManager().getOreEarnedAmountSync(player.getUniqueId(), oreName));
+            return String.format("%.2f", plugin.getDataManager().getCachedStatistics(player.getUniqueId()).getOreEarnedAmount(oreName));
         }
         
         return null; // Placeholder not found
@@ -0,0 +1,110 @@
+package com.orepay.leaderboard;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * Top-N ranking for one metric, kept in memory and updated incrementally
+ * Values only grow, so a player outside a full board enters only by beating the lowest entry
+ * Reads use a published array; updates outside the board are O(1), updates to members O(log N)
+ */
+public final class Leaderboard {
+    
+    private static final Comparator<LeaderboardEntry> ORDER = Comparator
+            .comparingDouble(LeaderboardEntry::getValue).reversed()
+            .thenComparing(LeaderboardEntry::getUuid);
+    
+    private final int capacity;
+    private final TreeSet<LeaderboardEntry> ranking = new TreeSet<>(ORDER);
+    private final Map<UUID, LeaderboardEntry> members = new HashMap<>();
+    private volatile LeaderboardEntry[] snapshot = new LeaderboardEntry[0];
+    
+    public Leaderboard(int capacity) {
+        this.capacity = capacity;
+    }
+    
+    /**
+     * Update a player's value
+     * Lower values than the player's current entry are ignored
+     * @param uuid The player UUID
+     * @param name The player name
+     * @param value The player's new value
+     */
+    public synchronized void update(UUID uuid, String name, double value) {
+        LeaderboardEntry current = members.get(uuid);
+        
+        if (current == null) {
+            // Not on a full board and not above the lowest entry, nothing changes
+            if (ranking.size() >= capacity && value <= ranking.last().getValue()) {
+                return;
+            }
+        } else {
+            if (value <= current.getValue()) {
+                return;
+            }
+            ranking.remove(current);
+        }
+        
+        LeaderboardEntry entry = new LeaderboardEntry(uuid, name, value);
+        ranking.add(entry);
+        members.put(uuid, entry);
+        
+        if (ranking.size() > capacity) {
+            members.remove(ranking.pollLast().getUuid());
+        }
+        
+        snapshot = ranking.toArray(new LeaderboardEntry[0]);
+    }
+    
+    /**
+     * Add a player from storage unless they are already ranked
+     * Used while seeding, so live updates made in the meantime win
+     * @param uuid The player UUID
+     * @param name The player name
+     * @param value The stored value
+     */
+    public synchronized void seed(UUID uuid, String name, double value) {
+        if (!members.containsKey(uuid)) {
+            update(uuid, name, value);
+        }
+    }
+    
+    /**
+     * Get the entry at a rank
+     * @param rank The rank, starting at 1
+     * @return The entry, or null if no player holds the rank
+     */
+    public LeaderboardEntry get(int rank) {
+        LeaderboardEntry[] entries = snapshot;
+        return rank >= 1 && rank <= entries.length ? entries[rank - 1] : null;
+    }
+    
+    /**
+     * Get the top entries
+     * @param limit The maximum number of entries
+     * @return The entries, highest first
+     */
+    public List<LeaderboardEntry> getTop(int limit) {
+        LeaderboardEntry[] entries = snapshot;
+        if (limit <= 0) {
+            return Collections.emptyList();
+        }
+        
+        return new ArrayList<>(Arrays.asList(entries).subList(0, Math.min(limit, entries.length)));
+    }
+    
+    /**
+     * Get the number of ranks the board holds
+     * @return The capacity
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+}
\ No newline at end of file
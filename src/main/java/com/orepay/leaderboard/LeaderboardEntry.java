@@ -0,0 +1,43 @@
+package com.orepay.leaderboard;
+
+import java.util.UUID;
+
+/**
+ * A player's entry on a leaderboard
+ */
+public final class LeaderboardEntry {
+    
+    private final UUID uuid;
+    private final String name;
+    private final double value;
+    
+    public LeaderboardEntry(UUID uuid, String name, double value) {
+        this.uuid = uuid;
+        this.name = name;
+        this.value = value;
+    }
+    
+    /**
+     * Get the player UUID
+     * @return The player UUID
+     */
+    public UUID getUuid() {
+        return uuid;
+    }
+    
+    /**
+     * Get the player name
+     * @return The player name
+     */
+    public String getName() {
+        return name;
+    }
+    
+    /**
+     * Get the ranked value, e.g. the total amount earned
+     * @return The value
+     */
+    public double getValue() {
+        return value;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,142 @@
+package com.orepay.leaderboard;
+
+import com.orepay.OrePay;
+import com.orepay.api.events.PlayerBatchRewardedEvent;
+import com.orepay.api.events.PlayerRewardedEvent;
+import com.orepay.data.PlayerStatistics;
+import org.bukkit.Material;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the total earned, total mined and per-ore leaderboards
+ * Boards are seeded once from storage and then updated from PlayerRewardedEvent and PlayerBatchRewardedEvent
+ */
+public class LeaderboardManager implements Listener {
+    
+    /** Board key for the total amount earned */
+    public static final String EARNED = "earned";
+    /** Board key for the total number of ores mined */
+    public static final String MINED = "mined";
+    
+    private final OrePay plugin;
+    private final int size;
+    private final Leaderboard earned;
+    private final Leaderboard mined;
+    private final Map<String, Leaderboard> ores = new ConcurrentHashMap<>();
+    
+    public LeaderboardManager(OrePay plugin) {
+        this.plugin = plugin;
+        this.size = Math.min(100, Math.max(1, plugin.getConfigManager().getInt("leaderboards.size", 10)));
+        this.earned = new Leaderboard(size);
+        this.mined = new Leaderboard(size);
+        
+        for (Material material : plugin.getConfigManager().getRewardTable().asMap().keySet()) {
+            ores.put(material.name(), new Leaderboard(size));
+        }
+        
+        plugin.getDataManager().getStorageExecutor().execute(this::seed);
+    }
+    
+    /**
+     * Load the initial rankings from storage (blocking)
+     */
+    private void seed() {
+        plugin.getDataManager().readTopEarned(size).forEach((uuid, value) -> earned.seed(uuid, lookupName(uuid), value));
+        plugin.getDataManager().readTopMined(size).forEach((uuid, value) -> mined.seed(uuid, lookupName(uuid), value));
+        
+        for (Map.Entry<String, Leaderboard> board : ores.entrySet()) {
+            plugin.getDataManager().readTopOreMined(board.getKey(), size)
+                    .forEach((uuid, value) -> board.getValue().seed(uuid, lookupName(uuid), value));
+        }
+    }
+    
+    /**
+     * Get a player's last known name
+     * @param uuid The player UUID
+     * @return The name, or the UUID if the server doesn't know the player
+     */
+    private String lookupName(UUID uuid) {
+        OfflinePlayer player = plugin.getServer().getOfflinePlayer(uuid);
+        return player.getName() != null ? player.getName() : uuid.toString();
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerRewarded(PlayerRewardedEvent event) {
+        Player player = event.getPlayer();
+        PlayerStatistics statistics = plugin.getDataManager().getCachedStatistics(player.getUniqueId());
+        
+        earned.update(player.getUniqueId(), player.getName(), statistics.getTotalEarned());
+        mined.update(player.getUniqueId(), player.getName(), statistics.getTotalMined());
+        
+        String oreName = event.getMaterial().name();
+        Leaderboard ore = ores.get(oreName);
+        if (ore != null) {
+            ore.update(player.getUniqueId(), player.getName(), statistics.getOreMinedCount(oreName));
+        }
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerBatchRewarded(PlayerBatchRewardedEvent event) {
+        Player player = event.getPlayer();
+        PlayerStatistics statistics = plugin.getDataManager().getCachedStatistics(player.getUniqueId());
+        
+        earned.update(player.getUniqueId(), player.getName(), statistics.getTotalEarned());
+        mined.update(player.getUniqueId(), player.getName(), statistics.getTotalMined());
+        
+        for (Material material : event.getOres().keySet()) {
+            String oreName = material.name();
+            Leaderboard ore = ores.get(oreName);
+            if (ore != null) {
+                ore.update(player.getUniqueId(), player.getName(), statistics.getOreMinedCount(oreName));
+            }
+        }
+    }
+    
+    /**
+     * Get a leaderboard by key
+     * @param key "earned", "mined" or an ore material name
+     * @return The leaderboard, or null if there is none for the key
+     */
+    public Leaderboard getLeaderboard(String key) {
+        if (EARNED.equalsIgnoreCase(key)) {
+            return earned;
+        }
+        if (MINED.equalsIgnoreCase(key)) {
+            return mined;
+        }
+        return ores.get(key.toUpperCase());
+    }
+    
+    /**
+     * Get the total earned leaderboard
+     * @return The leaderboard
+     */
+    public Leaderboard getEarned() {
+        return earned;
+    }
+    
+    /**
+     * Get the total mined leaderboard
+     * @return The leaderboard
+     */
+    public Leaderboard getMined() {
+        return mined;
+    }
+    
+    /**
+     * Get the leaderboard for an ore
+     * @param material The ore material
+     * @return The leaderboard, or null if the ore isn't rewarded
+     */
+    public Leaderboard getOre(Material material) {
+        return ores.get(material.name());
+    }
+}
\ No newline at end of file
@@ -4,17 +4,24 @@ import com.orepay.OrePay;
 import com.orepay.api.OrePayAPI;
 import com.orepay.api.events.OreMinedEvent;
 import com.orepay.api.events.PlayerRewardedEvent;
+import com.orepay.config.PluginSettings;
+import com.orepay.config.RewardTable;
 import org.bukkit.Material;
 import org.bukkit.block.Block;
+import org.bukkit.entity.Entity;
 import org.bukkit.entity.Player;
+import org.bukkit.entity.TNTPrimed;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.entity.EntityExplodeEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
 import java.util.Map;
-import java.util.UUID;
 
 /**
  * Listener for mining events
@@ -22,13 +29,12 @@ import java.util.UUID;
 public class MiningListener implements Listener {
     
     private final OrePay plugin;
+    private final VeinTracker veinTracker = new VeinTracker();
+    private final PlacedOreTracker placedOres;
     
-    // Maps to track vein mining
-    private final Map<UUID, Long> lastMiningTime = new HashMap<>();
-    private final Map<UUID, Material> lastMinedOre = new HashMap<>();
-    
-    public MiningListener(OrePay plugin) {
+    public MiningListener(OrePay plugin, PlacedOreTracker placedOres) {
         this.plugin = plugin;
+        this.placedOres = placedOres;
     }
     
     @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
@@ -36,9 +42,15 @@ public class MiningListener implements Listener {
         Player player = event.getPlayer();
         Block block = event.getBlock();
         Material material = block.getType();
+        RewardTable rewardTable = plugin.getConfigManager().getRewardTable();
         
         // Check if this is an ore
-        if (!isOre(material)) {
+        if (!rewardTable.isRewarded(material)) {
+            return;
+        }
+        
+        // Ores placed by players are never rewarded, breaking one forgets it
+        if (placedOres.remove(block)) {
             return;
         }
         
@@ -53,25 +65,22 @@ public class MiningListener implements Listener {
         }
         
         // Get the reward amount
-        double rewardAmount = plugin.getConfigManager().getRewardForOre(material);
+        double rewardAmount = rewardTable.getReward(material);
         
-        // Skip if reward is 0 or negative
-        if (rewardAmount <= 0) {
-            return;
-        }
+        PluginSettings settings = plugin.getConfigManager().getSettings();
+        
+        // Update vein mining tracking
+        long currentTick = plugin.getServer().getCurrentTick();
+        boolean continuesVein = veinTracker.update(player.getUniqueId(), material, currentTick, settings.getVeinTimeoutTicks());
         
         // Check for vein mining
-        if (isVeinMining(player, material)) {
+        if (settings.isVeinDetectionEnabled() && continuesVein) {
             // Apply vein mining multiplier if enabled
-            if (plugin.getConfigManager().getBoolean("vein-mining.enable-multiplier", true)) {
-                double veinMultiplier = plugin.getConfigManager().getDouble("vein-mining.multiplier", 0.5);
-                rewardAmount *= veinMultiplier;
+            if (settings.isVeinMultiplierEnabled()) {
+                rewardAmount *= settings.getVeinMultiplier();
             }
         }
         
-        // Update vein mining tracking
-        updateVeinMiningStatus(player, material);
-        
         // Fire OreMinedEvent (cancellable)
         OreMinedEvent minedEvent = new OreMinedEvent(player, material, rewardAmount);
         plugin.getServer().getPluginManager().callEvent(minedEvent);
@@ -85,12 +94,12 @@ public class MiningListener implements Listener {
         double finalAmount = minedEvent.getReward() * multiplier;
         
         // If amount is too small due to multipliers, skip
-        if (finalAmount < plugin.getConfigManager().getDouble("minimum-payout", 0.01)) {
+        if (finalAmount < settings.getMinimumPayout()) {
             return;
         }
         
         // Give reward
-        plugin.getEconomy().depositPlayer(player, finalAmount);
+        plugin.getPayoutCoalescer().deposit(player, finalAmount);
         
         // Record statistic
         plugin.getDataManager().recordMiningStatistic(player, material, finalAmount);
@@ -103,57 +112,67 @@ public class MiningListener implements Listener {
         plugin.getServer().getPluginManager().callEvent(rewardedEvent);
     }
     
-    /**
-     * Check if a material is an ore with a configured reward
-     * @param material The material to check
-     * @return True if the material is a rewarded ore
-     */
-    private boolean isOre(Material material) {
-        return plugin.getConfigManager().getRewardForOre(material) > 0;
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onEntityExplode(EntityExplodeEvent event) {
+        Player player = getRewardedExploder(event);
+        RewardTable rewardTable = plugin.getConfigManager().getRewardTable();
+        
+        // Collect the ores of the whole explosion into one batch
+        Map<Material, Integer> ores = new EnumMap<>(Material.class);
+        List<Block> blocks = new ArrayList<>();
+        
+        for (Block block : event.blockList()) {
+            Material material = block.getType();
+            
+            // Every exploded block loses its mark, the same as PlacedOreTracker does for block explosions,
+            // and ores placed by players are never rewarded
+            if (placedOres.remove(block) || player == null || !rewardTable.isRewarded(material)) {
+                continue;
+            }
+            
+            ores.merge(material, 1, Integer::sum);
+            blocks.add(block);
+        }
+        
+        if (!ores.isEmpty()) {
+            plugin.getBatchRewardProcessor().reward(player, ores, blocks, true);
+        }
     }
     
     /**
-     * Check if the player is vein mining
-     * @param player The player
-     * @param material The material being mined
-     * @return True if the player is vein mining
+     * Get the player to reward for the ores destroyed by an explosion
+     * @param event The explosion
+     * @return The player who ignited the TNT, or null if nobody should be rewarded
      */
-    private boolean isVeinMining(Player player, Material material) {
-        // Check if vein mining detection is enabled
-        if (!plugin.getConfigManager().getBoolean("vein-mining.detection-enabled", true)) {
-            return false;
+    private Player getRewardedExploder(EntityExplodeEvent event) {
+        if (!plugin.getConfigManager().getSettings().isExplosionRewardsEnabled()) {
+            return null;
         }
         
-        UUID uuid = player.getUniqueId();
+        // Only TNT ignited by a player is rewarded
+        if (!(event.getEntity() instanceof TNTPrimed)) {
+            return null;
+        }
         
-        // Check if player has mined recently
-        if (!lastMiningTime.containsKey(uuid) || !lastMinedOre.containsKey(uuid)) {
-            return false;
+        Entity source = ((TNTPrimed) event.getEntity()).getSource();
+        if (!(source instanceof Player)) {
+            return null;
         }
         
-        // Check if the ore is the same as last time
-        if (lastMinedOre.get(uuid) != material) {
-            return false;
+        Player player = (Player) source;
+        if (!player.isOnline() || !player.hasPermission("orepay.earn")) {
+            return null;
         }
         
-        // Check if within timeout period
-        long timeout = plugin.getConfigManager().getLong("vein-mining.timeout-ticks", 15L);
-        long currentTime = plugin.getServer().getCurrentTick();
-        long lastTime = lastMiningTime.get(uuid);
+        if (!plugin.getDataManager().areRewardsEnabledSync(player)) {
+            return null;
+        }
         
-        return (currentTime - lastTime) <= timeout;
+        return player;
     }
     
-    /**
-     * Update vein mining status for a player
-     * @param player The player
-     * @param material The material being mined
-     */
-    private void updateVeinMiningStatus(Player player, Material material) {
-        UUID uuid = player.getUniqueId();
-        long currentTime = plugin.getServer().getCurrentTick();
-        
-        lastMiningTime.put(uuid, currentTime);
-        lastMinedOre.put(uuid, material);
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        veinTracker.remove(event.getPlayer().getUniqueId());
     }
 }
\ No newline at end of file
@@ -0,0 +1,297 @@
+package com.orepay.listeners;
+
+import com.orepay.OrePay;
+import com.orepay.config.RewardTable;
+import org.bukkit.Chunk;
+import org.bukkit.NamespacedKey;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockFace;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockExplodeEvent;
+import org.bukkit.event.block.BlockPistonExtendEvent;
+import org.bukkit.event.block.BlockPistonRetractEvent;
+import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.world.ChunkUnloadEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+import org.bukkit.persistence.PersistentDataContainer;
+import org.bukkit.persistence.PersistentDataType;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Tracks ores placed by players so they can't be mined again for another reward
+ * Positions are stored in the chunk's persistent data as a sorted array of packed
+ * chunk-relative positions, and kept as per-section bitsets while the chunk is loaded
+ */
+public class PlacedOreTracker implements Listener {
+    
+    private final OrePay plugin;
+    private final NamespacedKey key;
+    private final Map<UUID, Map<Long, ChunkOres>> worlds = new HashMap<>();
+    
+    public PlacedOreTracker(OrePay plugin) {
+        this.plugin = plugin;
+        this.key = new NamespacedKey(plugin, "placed_ores");
+    }
+    
+    /**
+     * Check if placed ores are tracked
+     * @return True if tracking is enabled
+     */
+    private boolean isEnabled() {
+        return plugin.getConfigManager().getSettings().isPlacedOreTrackingEnabled();
+    }
+    
+    /**
+     * Forget a placed ore, e.g. because it was broken
+     * @param block The block
+     * @return True if the block was an ore placed by a player
+     */
+    public boolean remove(Block block) {
+        if (!isEnabled()) {
+            return false;
+        }
+        
+        ChunkOres ores = getChunkOres(block, false);
+        if (ores == null || !ores.remove(block.getX(), block.getY(), block.getZ())) {
+            return false;
+        }
+        
+        save(block.getChunk(), ores);
+        return true;
+    }
+    
+    /**
+     * Remember a placed ore
+     * @param block The block
+     */
+    private void mark(Block block) {
+        ChunkOres ores = getChunkOres(block, true);
+        if (ores.add(block.getX(), block.getY(), block.getZ())) {
+            save(block.getChunk(), ores);
+        }
+    }
+    
+    /**
+     * Get the placed ores of a block's chunk, reading them from the chunk the first time
+     * Chunks without placed ores are not kept in memory unless one is about to be added
+     * @param block The block
+     * @param create Whether to create the entry if the chunk has no placed ores
+     * @return The chunk's placed ores, or null if it has none and create is false
+     */
+    private ChunkOres getChunkOres(Block block, boolean create) {
+        UUID world = block.getWorld().getUID();
+        long chunkKey = chunkKey(block.getX() >> 4, block.getZ() >> 4);
+        
+        Map<Long, ChunkOres> chunks = worlds.get(world);
+        ChunkOres ores = chunks != null ? chunks.get(chunkKey) : null;
+        if (ores != null) {
+            return ores;
+        }
+        
+        int[] stored = block.getChunk().getPersistentDataContainer().get(key, PersistentDataType.INTEGER_ARRAY);
+        if (stored == null && !create) {
+            return null;
+        }
+        
+        ores = ChunkOres.of(stored);
+        worlds.computeIfAbsent(world, id -> new HashMap<>()).put(chunkKey, ores);
+        return ores;
+    }
+    
+    /**
+     * Write a chunk's placed ores to its persistent data
+     * @param chunk The chunk
+     * @param ores The chunk's placed ores
+     */
+    private void save(Chunk chunk, ChunkOres ores) {
+        PersistentDataContainer container = chunk.getPersistentDataContainer();
+        if (ores.isEmpty()) {
+            container.remove(key);
+        } else {
+            container.set(key, PersistentDataType.INTEGER_ARRAY, ores.toArray());
+        }
+    }
+    
+    /**
+     * Pack chunk coordinates into a single key
+     * @param chunkX The chunk X coordinate
+     * @param chunkZ The chunk Z coordinate
+     * @return The chunk key
+     */
+    private static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkZ << 32) | (chunkX & 0xFFFFFFFFL);
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockPlace(BlockPlaceEvent event) {
+        Block block = event.getBlockPlaced();
+        if (isEnabled() && plugin.getConfigManager().getRewardTable().isRewarded(block.getType())) {
+            mark(block);
+        }
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPistonExtend(BlockPistonExtendEvent event) {
+        move(event.getBlocks(), event.getDirection());
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPistonRetract(BlockPistonRetractEvent event) {
+        move(event.getBlocks(), event.getDirection());
+    }
+    
+    /**
+     * Move the marks of blocks pushed or pulled by a piston
+     * All marks are removed before any is added, as blocks may move onto each other's old positions
+     * Only rewarded materials can be marked, so other blocks are skipped like in onBlockPlace
+     * @param blocks The moved blocks
+     * @param direction The direction the blocks move in
+     */
+    private void move(List<Block> blocks, BlockFace direction) {
+        if (!isEnabled()) {
+            return;
+        }
+        
+        RewardTable rewardTable = plugin.getConfigManager().getRewardTable();
+        List<Block> moved = new ArrayList<>();
+        for (Block block : blocks) {
+            if (rewardTable.isRewarded(block.getType()) && remove(block)) {
+                moved.add(block.getRelative(direction));
+            }
+        }
+        
+        for (Block block : moved) {
+            mark(block);
+        }
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockExplode(BlockExplodeEvent event) {
+        // Every exploded block loses its mark whatever its type, as in MiningListener.onEntityExplode
+        for (Block block : event.blockList()) {
+            remove(block);
+        }
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChunkUnload(ChunkUnloadEvent event) {
+        Map<Long, ChunkOres> chunks = worlds.get(event.getChunk().getWorld().getUID());
+        if (chunks != null) {
+            chunks.remove(chunkKey(event.getChunk().getX(), event.getChunk().getZ()));
+        }
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onWorldUnload(WorldUnloadEvent event) {
+        worlds.remove(event.getWorld().getUID());
+    }
+    
+    /**
+     * Placed ores of one loaded chunk, as a 4096 bit set for each 16 block high section that has any
+     */
+    private static final class ChunkOres {
+        private static final int SECTION_WORDS = 16 * 16 * 16 / Long.SIZE;
+        
+        private final Map<Integer, long[]> sections = new HashMap<>();
+        
+        /**
+         * Read placed ores from their stored form
+         * @param packed Sorted packed positions (y << 8 | z << 4 | x), or null if none are stored
+         * @return The placed ores
+         */
+        private static ChunkOres of(int[] packed) {
+            ChunkOres ores = new ChunkOres();
+            if (packed != null) {
+                for (int position : packed) {
+                    ores.add(position & 15, position >> 8, (position >> 4) & 15);
+                }
+            }
+            return ores;
+        }
+        
+        /**
+         * Get the index of a position within its section
+         * @param x The block X coordinate
+         * @param y The block Y coordinate
+         * @param z The block Z coordinate
+         * @return The bit index
+         */
+        private static int index(int x, int y, int z) {
+            return ((y & 15) << 8) | ((z & 15) << 4) | (x & 15);
+        }
+        
+        private boolean add(int x, int y, int z) {
+            long[] bits = sections.computeIfAbsent(y >> 4, section -> new long[SECTION_WORDS]);
+            int index = index(x, y, z);
+            long previous = bits[index >>> 6];
+            bits[index >>> 6] = previous | (1L << index);
+            return bits[index >>> 6] != previous;
+        }
+        
+        private boolean remove(int x, int y, int z) {
+            long[] bits = sections.get(y >> 4);
+            int index = index(x, y, z);
+            if (bits == null || (bits[index >>> 6] & (1L << index)) == 0) {
+                return false;
+            }
+            
+            bits[index >>> 6] &= ~(1L << index);
+            
+            // Drop the section once its last ore is gone
+            boolean empty = true;
+            for (long word : bits) {
+                if (word != 0) {
+                    empty = false;
+                    break;
+                }
+            }
+            if (empty) {
+                sections.remove(y >> 4);
+            }
+            return true;
+        }
+        
+        private boolean isEmpty() {
+            return sections.isEmpty();
+        }
+        
+        /**
+         * Convert to the stored form
+         * @return Sorted packed positions (y << 8 | z << 4 | x)
+         */
+        private int[] toArray() {
+            List<Integer> sectionYs = new ArrayList<>(sections.keySet());
+            sectionYs.sort(null);
+            
+            int count = 0;
+            for (long[] bits : sections.values()) {
+                for (long word : bits) {
+                    count += Long.bitCount(word);
+                }
+            }
+            
+            int[] packed = new int[count];
+            int next = 0;
+            for (int sectionY : sectionYs) {
+                long[] bits = sections.get(sectionY);
+                for (int word = 0; word < bits.length; word++) {
+                    long remaining = bits[word];
+                    while (remaining != 0) {
+                        int index = (word << 6) | Long.numberOfTrailingZeros(remaining);
+                        remaining &= remaining - 1;
+                        packed[next++] = ((sectionY << 4 | index >> 8) << 8) | (index & 0xFF);
+                    }
+                }
+            }
+            
+            return packed;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,68 @@
+package com.orepay.listeners;
+
+import com.orepay.OrePay;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerLoginEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+import java.util.UUID;
+
+/**
+ * Listener that loads, invalidates and unloads cached player data
+ */
+public class PlayerSessionListener implements Listener {
+    
+    private final OrePay plugin;
+    
+    public PlayerSessionListener(OrePay plugin) {
+        this.plugin = plugin;
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPreLogin(AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) {
+            return;
+        }
+        
+        // Already on an async thread, so the blocking loads are fine here
+        plugin.getDataManager().loadPlayer(event.getUniqueId());
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onLogin(PlayerLoginEvent event) {
+        if (event.getResult() == PlayerLoginEvent.Result.ALLOWED) {
+            return;
+        }
+        
+        // Refused after the pre-login load (whitelist, ban, full server), no quit event will unload the data
+        UUID uuid = event.getPlayer().getUniqueId();
+        if (plugin.getServer().getPlayer(uuid) == null) {
+            plugin.getDataManager().unloadPlayerStatistics(uuid);
+            plugin.getDataManager().unloadPlayerSettings(uuid);
+        }
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onJoin(PlayerJoinEvent event) {
+        plugin.getMultiplierManager().invalidate(event.getPlayer().getUniqueId());
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onWorldChange(PlayerChangedWorldEvent event) {
+        plugin.getMultiplierManager().invalidate(event.getPlayer().getUniqueId());
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        plugin.getPayoutCoalescer().flush(event.getPlayer().getUniqueId());
+        plugin.getUiManager().discardPending(event.getPlayer().getUniqueId());
+        plugin.getDataManager().unloadPlayerStatistics(event.getPlayer().getUniqueId());
+        plugin.getDataManager().unloadPlayerSettings(event.getPlayer().getUniqueId());
+        plugin.getMultiplierManager().invalidate(event.getPlayer().getUniqueId());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,62 @@
+package com.orepay.listeners;
+
+import org.bukkit.Material;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks the last ore each player mined to detect vein mining
+ * Each player has one entry holding the tick and material ordinal packed
+ * into a single long, so both are always read and written together
+ */
+public class VeinTracker {
+    
+    private static final int ORDINAL_BITS = 16;
+    private static final long ORDINAL_MASK = (1L << ORDINAL_BITS) - 1;
+    private static final long EMPTY = -1L;
+    
+    private final Map<UUID, AtomicLong> lastMined = new ConcurrentHashMap<>();
+    
+    /**
+     * Record a mined ore and check whether it continues the player's vein
+     * @param uuid The player UUID
+     * @param material The material that was mined
+     * @param currentTick The current server tick
+     * @param timeoutTicks The maximum number of ticks between blocks of the same vein
+     * @return True if the previous ore was the same material and mined within the timeout
+     */
+    public boolean update(UUID uuid, Material material, long currentTick, long timeoutTicks) {
+        AtomicLong state = lastMined.get(uuid);
+        if (state == null) {
+            state = lastMined.computeIfAbsent(uuid, key -> new AtomicLong(EMPTY));
+        }
+        
+        int ordinal = material.ordinal();
+        long previous = state.getAndSet((currentTick << ORDINAL_BITS) | ordinal);
+        
+        if (previous == EMPTY || (previous & ORDINAL_MASK) != ordinal) {
+            return false;
+        }
+        
+        return currentTick - (previous >>> ORDINAL_BITS) <= timeoutTicks;
+    }
+    
+    /**
+     * Forget a player's vein state
+     * @param uuid The player UUID
+     */
+    public void remove(UUID uuid) {
+        lastMined.remove(uuid);
+    }
+    
+    /**
+     * Get the number of tracked players
+     * @return The number of tracked players
+     */
+    public int size() {
+        return lastMined.size();
+    }
+}
\ No newline at end of file
@@ -1,12 +1,13 @@
 package com.orepay.multiplier;
 
 import com.orepay.OrePay;
+import com.orepay.config.PluginSettings;
 import org.bukkit.entity.Player;
 import org.bukkit.permissions.PermissionAttachmentInfo;
 
-import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -16,8 +17,9 @@ import java.util.regex.Pattern;
 public class MultiplierManager {
     
     private final OrePay plugin;
-    private final Map<UUID, Double> temporaryMultipliers = new HashMap<>();
-    private final Map<UUID, Long> temporaryMultiplierExpiration = new HashMap<>();
+    private final Map<UUID, Double> temporaryMultipliers = new ConcurrentHashMap<>();
+    private final Map<UUID, Long> temporaryMultiplierExpiration = new ConcurrentHashMap<>();
+    private final Map<UUID, Double> resolvedMultipliers = new ConcurrentHashMap<>();
     private final Pattern multiplierPermissionPattern = Pattern.compile("orepay\\.multiplier\\.(\\d+(?:\\.\\d+)?)");
     
     public MultiplierManager(OrePay plugin) {
@@ -27,30 +29,55 @@ public class MultiplierManager {
     
     /**
      * Get the total multiplier for a player
+     * The result is cached until {@link #invalidate(UUID)} or {@link #invalidateAll()} is called
      * @param player The player
      * @return The total multiplier
      */
     public double getMultiplier(Player player) {
-        double baseMultiplier = plugin.getConfigManager().getDouble("multipliers.base", 1.0);
+        return resolvedMultipliers.computeIfAbsent(player.getUniqueId(), uuid -> resolveMultiplier(player));
+    }
+    
+    /**
+     * Clear the cached multiplier for a player
+     * Call this when something that affects the multiplier changes, e.g. permissions or world
+     * @param playerUUID The player UUID
+     */
+    public void invalidate(UUID playerUUID) {
+        resolvedMultipliers.remove(playerUUID);
+    }
+    
+    /**
+     * Clear all cached multipliers
+     */
+    public void invalidateAll() {
+        resolvedMultipliers.clear();
+    }
+    
+    /**
+     * Calculate the total multiplier for a player
+     * @param player The player
+     * @return The total multiplier
+     */
+    private double resolveMultiplier(Player player) {
+        PluginSettings settings = plugin.getConfigManager().getSettings();
+        double baseMultiplier = settings.getBaseMultiplier();
         
         // Check if multipliers are enabled
-        if (!plugin.getConfigManager().getBoolean("multipliers.enabled", true)) {
+        if (!settings.isMultipliersEnabled()) {
             return baseMultiplier;
         }
         
         // Apply permission-based multipliers
-        double permissionMultiplier = getPermissionMultiplier(player);
+        double permissionMultiplier = getPermissionMultiplier(player, settings);
         
         // Apply temporary multipliers
         double temporaryMultiplier = getTemporaryMultiplier(player.getUniqueId());
         
         // Apply world-specific multipliers
-        double worldMultiplier = getWorldMultiplier(player);
+        double worldMultiplier = getWorldMultiplier(player, settings);
         
         // Get final multiplier based on stacking type
-        String stackType = plugin.getConfigManager().getString("multipliers.stack-type", "add").toLowerCase();
-        
-        if (stackType.equals("multiply")) {
+        if (settings.getStackMode() == PluginSettings.StackMode.MULTIPLY) {
             // Multiply all multipliers together
             return baseMultiplier * permissionMultiplier * temporaryMultiplier * worldMultiplier;
         } else {
@@ -66,10 +93,11 @@ public class MultiplierManager {
     /**
      * Get the permission-based multiplier for a player
      * @param player The player
+     * @param settings The current settings
      * @return The permission-based multiplier
      */
-    private double getPermissionMultiplier(Player player) {
-        if (!plugin.getConfigManager().getBoolean("multipliers.permission.enabled", true)) {
+    private double getPermissionMultiplier(Player player, PluginSettings settings) {
+        if (!settings.isPermissionMultipliersEnabled()) {
             return 1.0;
         }
         
@@ -109,6 +137,8 @@ public class MultiplierManager {
             // Remove expiration if duration is 0 (permanent)
             temporaryMultiplierExpiration.remove(playerUUID);
         }
+        
+        invalidate(playerUUID);
     }
     
     /**
@@ -118,6 +148,7 @@ public class MultiplierManager {
     public void removeTemporaryMultiplier(UUID playerUUID) {
         temporaryMultipliers.remove(playerUUID);
         temporaryMultiplierExpiration.remove(playerUUID);
+        invalidate(playerUUID);
     }
     
     /**
@@ -126,7 +157,7 @@ public class MultiplierManager {
      * @return The temporary multiplier
      */
     public double getTemporaryMultiplier(UUID playerUUID) {
-        if (!plugin.getConfigManager().getBoolean("multipliers.temporary.enabled", true)) {
+        if (!plugin.getConfigManager().getSettings().isTemporaryMultipliersEnabled()) {
             return 1.0;
         }
         
@@ -136,21 +167,15 @@ public class MultiplierManager {
     /**
      * Get the world-specific multiplier for a player
      * @param player The player
+     * @param settings The current settings
      * @return The world multiplier
      */
-    private double getWorldMultiplier(Player player) {
-        if (!plugin.getConfigManager().getBoolean("multipliers.world.enabled", true)) {
+    private double getWorldMultiplier(Player player, PluginSettings settings) {
+        if (!settings.isWorldMultipliersEnabled()) {
             return 1.0;
         }
         
-        String worldName = player.getWorld().getName();
-        String path = "multipliers.world.worlds." + worldName;
-        
-        if (plugin.getConfigManager().contains(path)) {
-            return plugin.getConfigManager().getDouble(path, 1.0);
-        }
-        
-        return 1.0;
+        return settings.getWorldMultiplier(player.getWorld().getName());
     }
     
     /**
@@ -165,10 +190,7 @@ public class MultiplierManager {
                     .filter(entry -> currentTime > entry.getValue())
                     .map(Map.Entry::getKey)
                     .toList() // Create a copy of the keys to avoid ConcurrentModificationException
-                    .forEach(uuid -> {
-                        temporaryMultipliers.remove(uuid);
-                        temporaryMultiplierExpiration.remove(uuid);
-                    });
+                    .forEach(this::removeTemporaryMultiplier);
         }, 20L, 20L); // Check every second
     }
     
@@ -185,7 +207,11 @@ public class MultiplierManager {
             return 0; // No multiplier
         }
         
-        long expirationTime = temporaryMultiplierExpiration.get(playerUUID);
+        Long expirationTime = temporaryMultiplierExpiration.get(playerUUID);
+        if (expirationTime == null) {
+            return 0; // Expired while checking
+        }
+        
         long currentTime = System.currentTimeMillis();
         
         if (expirationTime <= currentTime) {
@@ -0,0 +1,40 @@
+package com.orepay.ui;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+
+/**
+ * Formats amounts with two decimals on the notification path
+ * The output is the same as String.format("%.2f") in the root locale: the shortest decimal form of
+ * the value is rounded half-up, so placeholders and chat show the same amount
+ * DecimalFormat isn't thread-safe, so each thread keeps its own instance
+ */
+public final class DecimalFormatter {
+    
+    private static final ThreadLocal<DecimalFormat> TWO_DECIMALS = ThreadLocal.withInitial(() -> {
+        DecimalFormat format = new DecimalFormat("0.00", DecimalFormatSymbols.getInstance(Locale.ROOT));
+        format.setRoundingMode(RoundingMode.HALF_UP);
+        format.setGroupingUsed(false);
+        return format;
+    });
+    
+    private DecimalFormatter() {
+    }
+    
+    /**
+     * Format a number with exactly two decimals
+     * @param value The number
+     * @return The formatted number, e.g. "14.50"
+     */
+    public static String formatTwoDecimals(double value) {
+        if (!Double.isFinite(value)) {
+            return TWO_DECIMALS.get().format(value);
+        }
+        
+        // Round the shortest decimal form like String.format, not the exact binary value
+        return TWO_DECIMALS.get().format(new BigDecimal(Double.toString(value)));
+    }
+}
\ No newline at end of file
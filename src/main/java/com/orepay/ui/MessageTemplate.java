@@ -0,0 +1,103 @@
+package com.orepay.ui;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Message parsed once into literal text and placeholder slots
+ * Rendering appends the literals and values without searching the text again
+ */
+public final class MessageTemplate {
+    
+    private final String[] literals;
+    private final int[] slots;
+    private final int literalLength;
+    
+    private MessageTemplate(String[] literals, int[] slots, int literalLength) {
+        this.literals = literals;
+        this.slots = slots;
+        this.literalLength = literalLength;
+    }
+    
+    /**
+     * Compile a message
+     * @param text The message text, with colors already translated
+     * @param placeholders The placeholders to recognize, e.g. "%amount%"
+     * @return The compiled template, values are passed to render in the same order as the placeholders
+     */
+    public static MessageTemplate compile(String text, String... placeholders) {
+        List<String> literals = new ArrayList<>();
+        List<Integer> slots = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int literalLength = 0;
+        
+        int i = 0;
+        while (i < text.length()) {
+            int slot = findPlaceholder(text, i, placeholders);
+            if (slot < 0) {
+                literal.append(text.charAt(i++));
+                continue;
+            }
+            
+            literals.add(literal.toString());
+            literalLength += literal.length();
+            literal.setLength(0);
+            slots.add(slot);
+            i += placeholders[slot].length();
+        }
+        
+        literals.add(literal.toString());
+        literalLength += literal.length();
+        
+        int[] slotArray = new int[slots.size()];
+        for (int j = 0; j < slotArray.length; j++) {
+            slotArray[j] = slots.get(j);
+        }
+        
+        return new MessageTemplate(literals.toArray(new String[0]), slotArray, literalLength);
+    }
+    
+    /**
+     * Find the placeholder starting at a position
+     * @param text The message text
+     * @param index The position
+     * @param placeholders The placeholders to recognize
+     * @return The placeholder index, or -1 if none starts there
+     */
+    private static int findPlaceholder(String text, int index, String[] placeholders) {
+        if (text.charAt(index) != '%') {
+            return -1;
+        }
+        
+        for (int slot = 0; slot < placeholders.length; slot++) {
+            if (text.startsWith(placeholders[slot], index)) {
+                return slot;
+            }
+        }
+        
+        return -1;
+    }
+    
+    /**
+     * Render the template
+     * @param values The placeholder values, in the order the placeholders were given to compile
+     * @return The rendered message
+     */
+    public String render(String... values) {
+        if (slots.length == 0) {
+            return literals[0];
+        }
+        
+        int length = literalLength;
+        for (int slot : slots) {
+            length += values[slot].length();
+        }
+        
+        StringBuilder result = new StringBuilder(length);
+        for (int i = 0; i < slots.length; i++) {
+            result.append(literals[i]).append(values[slots[i]]);
+        }
+        
+        return result.append(literals[slots.length]).toString();
+    }
+}
\ No newline at end of file
@@ -1,122 +1,242 @@
 package com.orepay.ui;
 
 import com.orepay.OrePay;
+import com.orepay.config.PluginSettings;
 import net.md_5.bungee.api.ChatMessageType;
 import net.md_5.bungee.api.chat.TextComponent;
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
 
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
 /**
  * Manages UI-related functionality, including notifications
  */
 public class UIManager {
     
+    private static final String[] NOTIFICATION_PLACEHOLDERS = {"%amount%", "%ore%", "%currency%"};
+    private static final String[] SUMMARY_ENTRY_PLACEHOLDERS = {"%count%", "%ore%"};
+    
     private final OrePay plugin;
+    private final Map<UUID, PendingNotification> pending = new HashMap<>();
+    private final String[] oreDisplayNames;
+    private volatile Templates templates;
     
     public UIManager(OrePay plugin) {
         this.plugin = plugin;
+        
+        // Display names never change, so build them once for every material
+        Material[] materials = Material.values();
+        this.oreDisplayNames = new String[materials.length];
+        for (Material material : materials) {
+            oreDisplayNames[material.ordinal()] = formatOreName(material);
+        }
+        
+        reload();
+        
+        // One task sends all aggregated notifications
+        plugin.getServer().getScheduler().runTaskTimer(plugin, this::sendDueNotifications, 1L, 1L);
+    }
+    
+    /**
+     * Compile the notification messages from the current config
+     * The currency name is also read here, so it only changes on reload
+     */
+    public void reload() {
+        String prefix = plugin.getConfigManager().getPrefix();
+        
+        this.templates = new Templates(
+                compile(prefix + plugin.getConfigManager().getMessage("messages.notifications.chat")),
+                compile(plugin.getConfigManager().getMessage("messages.notifications.actionbar")),
+                compile(plugin.getConfigManager().getMessage("messages.notifications.title")),
+                compile(plugin.getConfigManager().getMessage("messages.notifications.subtitle")),
+                MessageTemplate.compile(plugin.getConfigManager().getMessage("messages.notifications.summary-entry"), SUMMARY_ENTRY_PLACEHOLDERS),
+                plugin.getEconomy().currencyNamePlural());
+    }
+    
+    /**
+     * Compile a notification message
+     * @param message The message with colors translated
+     * @return The compiled template
+     */
+    private static MessageTemplate compile(String message) {
+        return MessageTemplate.compile(message, NOTIFICATION_PLACEHOLDERS);
+    }
+    
+    /**
+     * Get the display name of an ore, e.g. "Deepslate Iron Ore"
+     * @param material The ore material
+     * @return The display name
+     */
+    public String getOreDisplayName(Material material) {
+        return oreDisplayNames[material.ordinal()];
     }
     
     /**
      * Send a mining reward notification to a player using their preferred format
+     * When aggregation is enabled the reward is buffered and sent later as part of a summary
      * @param player The player
      * @param material The ore material
      * @param amount The reward amount
      */
     public void sendRewardNotification(Player player, Material material, double amount) {
-        String notifyType = plugin.getConfigManager().getString("notifications.type", "chat").toLowerCase();
+        PluginSettings settings = plugin.getConfigManager().getSettings();
         
-        switch (notifyType) {
-            case "actionbar":
-                sendActionBar(player, material, amount);
-                break;
-            case "title":
-                sendTitle(player, material, amount);
-                break;
-            case "subtitle":
-                sendSubtitle(player, material, amount);
-                break;
-            case "none":
-                // No notification
-                break;
-            case "chat":
-            default:
-                sendChatMessage(player, material, amount);
-                break;
+        if (settings.getNotificationType() == PluginSettings.NotificationType.NONE) {
+            return;
         }
+        
+        if (!settings.isNotificationAggregationEnabled()) {
+            sendNotification(player, getOreDisplayName(material), amount, settings);
+            return;
+        }
+        
+        PendingNotification notification = pending.get(player.getUniqueId());
+        if (notification == null) {
+            long sendTick = plugin.getServer().getCurrentTick() + settings.getNotificationAggregationTicks();
+            notification = new PendingNotification(player, sendTick);
+            pending.put(player.getUniqueId(), notification);
+        }
+        
+        notification.amount += amount;
+        notification.rewards++;
+        notification.counts.merge(material, 1, Integer::sum);
     }
     
     /**
-     * Send a mining reward notification to a player via chat
+     * Send one notification for a batch of ores, listing them like an aggregated summary
+     * When aggregation is enabled the batch is buffered and sent later as part of a summary
      * @param player The player
-     * @param material The ore material
-     * @param amount The reward amount
+     * @param counts Map of ore material to the number mined
+     * @param amount The total reward amount
      */
-    private void sendChatMessage(Player player, Material material, double amount) {
-        String message = plugin.getConfigManager().getMessage("notifications.chat")
-                .replace("%amount%", String.format("%.2f", amount))
-                .replace("%ore%", formatOreName(material))
-                .replace("%currency%", plugin.getEconomy().currencyNamePlural());
+    public void sendBatchRewardNotification(Player player, Map<Material, Integer> counts, double amount) {
+        PluginSettings settings = plugin.getConfigManager().getSettings();
+        
+        if (settings.getNotificationType() == PluginSettings.NotificationType.NONE || counts.isEmpty()) {
+            return;
+        }
+        
+        int rewards = 0;
+        for (int count : counts.values()) {
+            rewards += count;
+        }
         
-        player.sendMessage(plugin.getConfigManager().getPrefix() + message);
+        if (!settings.isNotificationAggregationEnabled()) {
+            sendNotification(player, formatSummary(counts, rewards), amount, settings);
+            return;
+        }
+        
+        PendingNotification notification = pending.get(player.getUniqueId());
+        if (notification == null) {
+            long sendTick = plugin.getServer().getCurrentTick() + settings.getNotificationAggregationTicks();
+            notification = new PendingNotification(player, sendTick);
+            pending.put(player.getUniqueId(), notification);
+        }
+        
+        notification.amount += amount;
+        notification.rewards += rewards;
+        for (Map.Entry<Material, Integer> entry : counts.entrySet()) {
+            notification.counts.merge(entry.getKey(), entry.getValue(), Integer::sum);
+        }
     }
     
     /**
-     * Send a mining reward notification to a player via action bar
-     * @param player The player
-     * @param material The ore material
-     * @param amount The reward amount
+     * Drop any buffered notification for a player
+     * @param uuid The player UUID
      */
-    private void sendActionBar(Player player, Material material, double amount) {
-        String message = plugin.getConfigManager().getMessage("notifications.actionbar")
-                .replace("%amount%", String.format("%.2f", amount))
-                .replace("%ore%", formatOreName(material))
-                .replace("%currency%", plugin.getEconomy().currencyNamePlural());
+    public void discardPending(UUID uuid) {
+        pending.remove(uuid);
+    }
+    
+    /**
+     * Send the summaries whose aggregation window has closed
+     * Runs every tick from a single repeating task
+     */
+    private void sendDueNotifications() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        
+        long currentTick = plugin.getServer().getCurrentTick();
+        PluginSettings settings = plugin.getConfigManager().getSettings();
         
-        player.spigot().sendMessage(ChatMessageType.ACTION_BAR, new TextComponent(message));
+        Iterator<PendingNotification> iterator = pending.values().iterator();
+        while (iterator.hasNext()) {
+            PendingNotification notification = iterator.next();
+            if (notification.sendTick > currentTick) {
+                continue;
+            }
+            
+            iterator.remove();
+            if (notification.player.isOnline()) {
+                sendNotification(notification.player, formatSummary(notification.counts, notification.rewards), notification.amount, settings);
+            }
+        }
     }
     
     /**
-     * Send a mining reward notification to a player via title
-     * @param player The player
-     * @param material The ore material
-     * @param amount The reward amount
+     * Format the ores in a summary, e.g. "6x Deepslate Iron Ore, 1x Gold Ore"
+     * @param counts Map of ore material to the number mined
+     * @param rewards The total number of ores
+     * @return The formatted ores
      */
-    private void sendTitle(Player player, Material material, double amount) {
-        String title = plugin.getConfigManager().getMessage("notifications.title")
-                .replace("%amount%", String.format("%.2f", amount))
-                .replace("%ore%", formatOreName(material))
-                .replace("%currency%", plugin.getEconomy().currencyNamePlural());
-        
-        String subtitle = plugin.getConfigManager().getMessage("notifications.subtitle")
-                .replace("%amount%", String.format("%.2f", amount))
-                .replace("%ore%", formatOreName(material))
-                .replace("%currency%", plugin.getEconomy().currencyNamePlural());
-        
-        int fadeIn = plugin.getConfigManager().getInt("notifications.title-fade-in", 5);
-        int stay = plugin.getConfigManager().getInt("notifications.title-stay", 20);
-        int fadeOut = plugin.getConfigManager().getInt("notifications.title-fade-out", 5);
-        
-        player.sendTitle(title, subtitle, fadeIn, stay, fadeOut);
+    private String formatSummary(Map<Material, Integer> counts, int rewards) {
+        // A single reward reads the same as a normal notification
+        if (rewards == 1) {
+            return getOreDisplayName(counts.keySet().iterator().next());
+        }
+        
+        MessageTemplate entryTemplate = templates.summaryEntry;
+        StringBuilder summary = new StringBuilder();
+        
+        for (Map.Entry<Material, Integer> entry : counts.entrySet()) {
+            if (summary.length() > 0) {
+                summary.append(", ");
+            }
+            summary.append(entryTemplate.render(String.valueOf(entry.getValue()), getOreDisplayName(entry.getKey())));
+        }
+        
+        return summary.toString();
     }
     
     /**
-     * Send a mining reward notification to a player via subtitle only
+     * Send a notification in the configured format
      * @param player The player
-     * @param material The ore material
+     * @param oreName The ore display name or summary
      * @param amount The reward amount
+     * @param settings The current settings
      */
-    private void sendSubtitle(Player player, Material material, double amount) {
-        String subtitle = plugin.getConfigManager().getMessage("notifications.subtitle")
-                .replace("%amount%", String.format("%.2f", amount))
-                .replace("%ore%", formatOreName(material))
-                .replace("%currency%", plugin.getEconomy().currencyNamePlural());
+    private void sendNotification(Player player, String oreName, double amount, PluginSettings settings) {
+        Templates templates = this.templates;
+        String formattedAmount = DecimalFormatter.formatTwoDecimals(amount);
         
-        int fadeIn = plugin.getConfigManager().getInt("notifications.title-fade-in", 5);
-        int stay = plugin.getConfigManager().getInt("notifications.title-stay", 20);
-        int fadeOut = plugin.getConfigManager().getInt("notifications.title-fade-out", 5);
-        
-        player.sendTitle("", subtitle, fadeIn, stay, fadeOut);
+        switch (settings.getNotificationType()) {
+            case ACTIONBAR:
+                String actionBar = templates.actionBar.render(formattedAmount, oreName, templates.currency);
+                player.spigot().sendMessage(ChatMessageType.ACTION_BAR, new TextComponent(actionBar));
+                break;
+            case TITLE:
+                player.sendTitle(templates.title.render(formattedAmount, oreName, templates.currency),
+                        templates.subtitle.render(formattedAmount, oreName, templates.currency),
+                        settings.getTitleFadeIn(), settings.getTitleStay(), settings.getTitleFadeOut());
+                break;
+            case SUBTITLE:
+                player.sendTitle("", templates.subtitle.render(formattedAmount, oreName, templates.currency),
+                        settings.getTitleFadeIn(), settings.getTitleStay(), settings.getTitleFadeOut());
+                break;
+            case NONE:
+                // No notification
+                break;
+            case CHAT:
+            default:
+                player.sendMessage(templates.chat.render(formattedAmount, oreName, templates.currency));
+                break;
+        }
     }
     
     /**
@@ -124,7 +244,7 @@ public class UIManager {
      * @param material The ore material
      * @return Formatted ore name
      */
-    private String formatOreName(Material material) {
+    private static String formatOreName(Material material) {
         String oreName = material.name().toLowerCase();
         oreName = oreName.replace('_', ' ');
         
@@ -146,4 +266,42 @@ public class UIManager {
         
         return result.toString();
     }
+    
+    /**
+     * Rewards buffered for a player until their summary is sent
+     */
+    private static final class PendingNotification {
+        private final Player player;
+        private final long sendTick;
+        private final Map<Material, Integer> counts = new LinkedHashMap<>();
+        private double amount;
+        private int rewards;
+        
+        private PendingNotification(Player player, long sendTick) {
+            this.player = player;
+            this.sendTick = sendTick;
+        }
+    }
+    
+    /**
+     * Notification messages compiled from one config load
+     */
+    private static final class Templates {
+        private final MessageTemplate chat;
+        private final MessageTemplate actionBar;
+        private final MessageTemplate title;
+        private final MessageTemplate subtitle;
+        private final MessageTemplate summaryEntry;
+        private final String currency;
+        
+        private Templates(MessageTemplate chat, MessageTemplate actionBar, MessageTemplate title,
+                          MessageTemplate subtitle, MessageTemplate summaryEntry, String currency) {
+            this.chat = chat;
+            this.actionBar = actionBar;
+            this.title = title;
+            this.subtitle = subtitle;
+            this.summaryEntry = summaryEntry;
+            this.currency = currency;
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,39 @@
+package com.orepay.ui;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DecimalFormatterTest {
+    
+    @Test
+    void formatsTwoDecimals() {
+        assertEquals("0.00", DecimalFormatter.formatTwoDecimals(0));
+        assertEquals("14.50", DecimalFormatter.formatTwoDecimals(14.5));
+        assertEquals("-1.24", DecimalFormatter.formatTwoDecimals(-1.2375));
+    }
+    
+    @Test
+    void roundsExactHalvesUp() {
+        // Exactly representable .xx5 values are ties
+        assertEquals("0.13", DecimalFormatter.formatTwoDecimals(0.125));
+        assertEquals("0.38", DecimalFormatter.formatTwoDecimals(0.375));
+        assertEquals("0.63", DecimalFormatter.formatTwoDecimals(0.625));
+        assertEquals("123456789.13", DecimalFormatter.formatTwoDecimals(123456789.125));
+    }
+    
+    @Test
+    void roundsInexactHalvesLikeStringFormat() {
+        // 2.675, 0.015 and 1.005 are stored slightly below the tie, String.format still rounds them up
+        assertEquals("2.68", DecimalFormatter.formatTwoDecimals(2.675));
+        assertEquals("0.02", DecimalFormatter.formatTwoDecimals(0.015));
+        assertEquals("1.01", DecimalFormatter.formatTwoDecimals(1.005));
+        assertEquals("0.03", DecimalFormatter.formatTwoDecimals(0.025));
+    }
+    
+    @Test
+    void formatsLargeAmountsWithoutOverflow() {
+        assertEquals("100000000000000000000.00", DecimalFormatter.formatTwoDecimals(1e20));
+        assertEquals("12345678901234.56", DecimalFormatter.formatTwoDecimals(12345678901234.56));
+    }
+}
\ No newline at end of file